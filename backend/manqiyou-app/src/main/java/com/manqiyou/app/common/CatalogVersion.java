@@ -0,0 +1,43 @@
+package com.manqiyou.app.common;
+
+import com.manqiyou.app.event.CategoryChangedEvent;
+import com.manqiyou.app.event.RouteChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 目录数据版本号
+ * 线路、分类每次变更版本号递增，用作 ETag，条件请求无需重新查询和序列化即可判断内容是否变化。
+ * 初始值取启动时间，保证重启后不会复用之前发出的版本号。
+ * 变更监听排在最后，等内存索引刷新完成后才递增，避免旧数据带着新版本号被缓存。
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong routes = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong categories = new AtomicLong(System.currentTimeMillis());
+
+    public long routes() {
+        return routes.get();
+    }
+
+    public long categories() {
+        return categories.get();
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onRouteChanged(RouteChangedEvent event) {
+        routes.incrementAndGet();
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.incrementAndGet();
+    }
+}
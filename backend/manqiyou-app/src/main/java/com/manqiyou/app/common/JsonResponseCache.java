@@ -0,0 +1,121 @@
+package com.manqiyou.app.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manqiyou.app.config.ConditionalGetInterceptor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预序列化响应缓存（可选开启）
+ * 稳定的 Result 响应只序列化一次，以字节数组（及可选的 gzip 字节）缓存，之后直接写入输出流，
+ * 不再经过 Jackson。缓存项记录生成时的数据版本号，版本变化后下次请求时重新生成。
+ * 此模式下 Result.timestamp 为快照生成时间，而不是本次请求时间。
+ */
+@Component
+public class JsonResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final LocalCache<String, Entry> entries;
+
+    public JsonResponseCache(ObjectMapper objectMapper,
+                             @Value("${manqiyou.response-cache.enabled:false}") boolean enabled,
+                             @Value("${manqiyou.response-cache.gzip:true}") boolean gzip,
+                             @Value("${manqiyou.response-cache.max-size:1000}") int maxSize,
+                             @Value("${manqiyou.response-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.entries = new LocalCache<>("response-bytes", maxSize, ttlSeconds * 1000);
+    }
+
+    /**
+     * 写出缓存的响应字节；未开启时返回 false，由调用方按普通方式返回。
+     * 只有 code 为 200 的结果会被缓存
+     */
+    public boolean write(String key, long version, Supplier<Result<?>> renderer,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!enabled) {
+            return false;
+        }
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || entry.version != version) {
+            entry = render(version, renderer.get());
+            if (entry.cacheable) {
+                entries.put(key, entry);
+            }
+        }
+
+        ConditionalGetInterceptor.applyCacheHeaders(request, response, entry.cacheable);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        byte[] body = entry.json;
+        if (entry.gzip != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                String etag = response.getHeader(HttpHeaders.ETAG);
+                if (etag != null) {
+                    response.setHeader(HttpHeaders.ETAG, gzipEtag(etag));
+                }
+                body = entry.gzip;
+            }
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return true;
+    }
+
+    /**
+     * gzip 编码表示对应的强 ETag，与未压缩表示区分
+     */
+    public static String gzipEtag(String etag) {
+        if (etag.endsWith("-gzip\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> stats() {
+        return entries.stats();
+    }
+
+    private Entry render(long version, Result<?> result) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(result);
+            return new Entry(version, json, gzip ? gzip(json) : null, result.getCode() == 200);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("响应序列化失败", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Entry(long version, byte[] json, byte[] gzip, boolean cacheable) {
+    }
+}
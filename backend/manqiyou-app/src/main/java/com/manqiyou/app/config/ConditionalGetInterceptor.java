@@ -0,0 +1,83 @@
+package com.manqiyou.app.config;
+
+import com.manqiyou.app.common.CatalogVersion;
+import com.manqiyou.app.common.JsonResponseCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 目录接口条件请求处理
+ * 按数据版本号生成强 ETag；If-None-Match 命中时直接返回 304，不进入 Controller。
+ * 未命中时只记录 ETag，由 {@link #applyCacheHeaders} 在响应写出前按结果设置：
+ * 只有 code 为 200 的结果才带 ETag 和 public 缓存头，错误结果（HTTP 状态同为 200）标记为不可缓存。
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+    private static final String CACHE_CONTROL_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".cacheControl";
+
+    private final CatalogVersion catalogVersion;
+    private final String cacheControl;
+
+    public ConditionalGetInterceptor(CatalogVersion catalogVersion, long maxAgeSeconds) {
+        this.catalogVersion = catalogVersion;
+        this.cacheControl = "public, max-age=" + maxAgeSeconds + ", must-revalidate";
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String etag = etagFor(request.getRequestURI());
+        if (etag == null) {
+            return true;
+        }
+        // 预序列化缓存输出 gzip 时使用带编码后缀的 ETag，协商时同样认可
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            String gzipEtag = JsonResponseCache.gzipEtag(etag);
+            String matched = ifNoneMatch.contains(gzipEtag) ? gzipEtag : ifNoneMatch.contains(etag) ? etag : null;
+            if (matched != null) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                response.setHeader(HttpHeaders.ETAG, matched);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                return false;
+            }
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(CACHE_CONTROL_ATTRIBUTE, cacheControl);
+        return true;
+    }
+
+    /**
+     * 按结果设置缓存头，非目录请求不做处理
+     *
+     * @param success 结果 code 是否为 200
+     */
+    public static void applyCacheHeaders(HttpServletRequest request, HttpServletResponse response, boolean success) {
+        Object etag = request.getAttribute(ETAG_ATTRIBUTE);
+        if (etag == null) {
+            return;
+        }
+        if (success) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, (String) request.getAttribute(CACHE_CONTROL_ATTRIBUTE));
+            response.setHeader(HttpHeaders.ETAG, (String) etag);
+        } else {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        }
+    }
+
+    private String etagFor(String uri) {
+        if (uri.startsWith("/api/routes")) {
+            return "\"r" + catalogVersion.routes() + "\"";
+        }
+        if (uri.startsWith("/api/categories")) {
+            return "\"c" + catalogVersion.categories() + "\"";
+        }
+        return null;
+    }
+}
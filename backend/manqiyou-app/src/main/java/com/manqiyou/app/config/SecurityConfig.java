@@ -1,7 +1,9 @@
 package com.manqiyou.app.config;
 
+import com.manqiyou.common.security.util.JwtUtil;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -12,9 +14,11 @@ import org.springframework.security.web.SecurityFilterChain;
 
 /**
  * Spring Security 配置
+ * JwtUtil 来自公共安全模块（不在组件扫描范围内），这里导入；单体应用未配置吊销存储，不做吊销检查
  */
 @Configuration
 @EnableWebSecurity
+@Import(JwtUtil.class)
 public class SecurityConfig {
 
     /**
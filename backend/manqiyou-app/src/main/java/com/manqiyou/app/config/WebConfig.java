@@ -0,0 +1,30 @@
+package com.manqiyou.app.config;
+
+import com.manqiyou.app.common.CatalogVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC 配置
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogVersion catalogVersion;
+    private final long catalogMaxAge;
+
+    public WebConfig(CatalogVersion catalogVersion,
+                     @Value("${manqiyou.http-cache.catalog-max-age-seconds:60}") long catalogMaxAge) {
+        this.catalogVersion = catalogVersion;
+        this.catalogMaxAge = catalogMaxAge;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 公开的目录查询接口：ETag + Cache-Control
+        registry.addInterceptor(new ConditionalGetInterceptor(catalogVersion, catalogMaxAge))
+            .addPathPatterns("/api/routes", "/api/routes/**", "/api/categories", "/api/categories/**");
+    }
+}
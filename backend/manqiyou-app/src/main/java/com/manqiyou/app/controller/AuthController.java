@@ -1,12 +1,18 @@
 package com.manqiyou.app.controller;
 
 import com.manqiyou.app.common.Result;
+import com.manqiyou.app.ratelimit.RateLimitFilter;
+import com.manqiyou.app.ratelimit.RateLimitProperties;
+import com.manqiyou.app.ratelimit.RateLimiter;
+import com.manqiyou.app.service.VerificationCodeStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 认证 API（开发用模拟实现）
@@ -15,25 +21,69 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    // 模拟验证码存储
-    private final Map<String, String> codeStore = new ConcurrentHashMap<>();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * 按手机号限制发送验证码的策略名
+     */
+    private static final String PHONE_POLICY = "send-code-phone";
+
+    private final VerificationCodeStore codeStore;
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+    private final long codeTtlSeconds;
+    private final long resendIntervalSeconds;
+
+    public AuthController(VerificationCodeStore codeStore, RateLimiter rateLimiter,
+                          RateLimitProperties rateLimitProperties,
+                          @Value("${manqiyou.auth.code.ttl-seconds:300}") long codeTtlSeconds,
+                          @Value("${manqiyou.auth.code.resend-interval-seconds:60}") long resendIntervalSeconds) {
+        this.codeStore = codeStore;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitProperties = rateLimitProperties;
+        this.codeTtlSeconds = codeTtlSeconds;
+        this.resendIntervalSeconds = resendIntervalSeconds;
+    }
 
     /**
      * 发送验证码（模拟）
      */
     @PostMapping("/send-code")
-    public Result<Map<String, Object>> sendCode(@RequestBody SendCodeRequest request) {
+    public Result<Map<String, Object>> sendCode(@RequestBody SendCodeRequest request, HttpServletResponse response) {
         String phone = request.getPhone();
+        if (phone == null || phone.isBlank()) {
+            return Result.error(400, "手机号不能为空");
+        }
+        RateLimitProperties.Policy policy = rateLimitProperties.getPolicy(PHONE_POLICY);
+        if (rateLimitProperties.isEnabled() && policy != null) {
+            long waitMillis = rateLimiter.tryAcquire(PHONE_POLICY + ":" + phone,
+                policy.getCapacity(), policy.getRefillPerSecond());
+            if (waitMillis > 0) {
+                response.setStatus(429);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimitFilter.retryAfterSeconds(waitMillis)));
+                return Result.error(429, "该手机号验证码发送次数过多，请稍后再试");
+            }
+        }
         
         // 生成6位验证码
-        String code = String.format("%06d", new Random().nextInt(1000000));
-        codeStore.put(phone, code);
+        String code = String.format("%06d", RANDOM.nextInt(1000000));
+        switch (codeStore.save(phone, code)) {
+            case TOO_FREQUENT:
+                // 剩余间隔不超过重发间隔
+                response.setStatus(429);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(resendIntervalSeconds));
+                return Result.error(429, "验证码发送过于频繁，请稍后再试");
+            case CAPACITY_EXCEEDED:
+                return Result.error(503, "验证码服务繁忙，请稍后再试");
+            default:
+                break;
+        }
         
         // 开发环境直接返回验证码
         Map<String, Object> data = new HashMap<>();
         data.put("message", "验证码已发送");
         data.put("code", code); // 仅开发环境返回
-        data.put("expiresIn", 300);
+        data.put("expiresIn", codeTtlSeconds);
         
         System.out.println("发送验证码到 " + phone + ": " + code);
         
@@ -47,19 +97,22 @@ public class AuthController {
     public Result<Map<String, Object>> login(@RequestBody LoginRequest request) {
         String phone = request.getPhone();
         String code = request.getCode();
+        if (phone == null || phone.isBlank()) {
+            return Result.error(400, "手机号不能为空");
+        }
         
-        // 验证验证码
-        String storedCode = codeStore.get(phone);
-        if (storedCode == null || !storedCode.equals(code)) {
+        // 验证验证码（通过后即作废）
+        VerificationCodeStore.VerifyResult verified = codeStore.verify(phone, code);
+        if (verified != VerificationCodeStore.VerifyResult.SUCCESS) {
             // 开发环境：允许使用 123456 作为万能验证码
             if (!"123456".equals(code)) {
+                if (verified == VerificationCodeStore.VerifyResult.TOO_MANY_ATTEMPTS) {
+                    return Result.error(400, "验证码错误次数过多，请重新获取");
+                }
                 return Result.error(400, "验证码错误或已过期");
             }
         }
         
-        // 清除验证码
-        codeStore.remove(phone);
-        
         // 生成模拟 token
         String token = "mock_token_" + System.currentTimeMillis();
         
@@ -1,10 +1,15 @@
 package com.manqiyou.app.controller;
 
+import com.manqiyou.app.common.CatalogVersion;
+import com.manqiyou.app.common.JsonResponseCache;
 import com.manqiyou.app.common.Result;
 import com.manqiyou.app.entity.Category;
 import com.manqiyou.app.service.CategoryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -15,16 +20,26 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final JsonResponseCache responseCache;
+    private final CatalogVersion catalogVersion;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, JsonResponseCache responseCache,
+                              CatalogVersion catalogVersion) {
         this.categoryService = categoryService;
+        this.responseCache = responseCache;
+        this.catalogVersion = catalogVersion;
     }
 
     /**
      * 获取所有分类
      */
     @GetMapping
-    public Result<List<Category>> getAllCategories() {
+    public Result<List<Category>> getAllCategories(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (responseCache.write("categories", catalogVersion.categories(),
+                () -> Result.success(categoryService.getAllCategories()), request, response)) {
+            return null;
+        }
         return Result.success(categoryService.getAllCategories());
     }
 
@@ -33,7 +48,7 @@ public class CategoryController {
      */
     @GetMapping("/{id}")
     public Result<Category> getCategory(@PathVariable Long id) {
-        Category category = categoryService.getById(id);
+        Category category = categoryService.getCategory(id);
         if (category == null) {
             return Result.error(404, "分类不存在");
         }
@@ -1,6 +1,8 @@
 package com.manqiyou.app.controller;
 
+import com.manqiyou.app.common.JsonResponseCache;
 import com.manqiyou.app.common.Result;
+import com.manqiyou.app.service.RouteService;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,6 +17,14 @@ import java.util.Map;
 @RequestMapping("/api")
 public class HealthController {
 
+    private final RouteService routeService;
+    private final JsonResponseCache responseCache;
+
+    public HealthController(RouteService routeService, JsonResponseCache responseCache) {
+        this.routeService = routeService;
+        this.responseCache = responseCache;
+    }
+
     /**
      * 健康检查
      */
@@ -25,6 +35,11 @@ public class HealthController {
         data.put("service", "manqiyou-app");
         data.put("version", "1.0.0");
         data.put("timestamp", System.currentTimeMillis());
+        Map<String, Object> caches = new HashMap<>(routeService.getCacheStats());
+        if (responseCache.isEnabled()) {
+            caches.put("responseBytes", responseCache.stats());
+        }
+        data.put("caches", caches);
         return Result.success(data);
     }
 
@@ -1,11 +1,20 @@
 package com.manqiyou.app.controller;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.manqiyou.app.common.CatalogVersion;
+import com.manqiyou.app.common.JsonResponseCache;
 import com.manqiyou.app.common.Result;
+import com.manqiyou.app.dto.RouteBatchResult;
+import com.manqiyou.app.dto.RouteFacets;
+import com.manqiyou.app.dto.RouteQuery;
+import com.manqiyou.app.dto.RouteSearchHit;
+import com.manqiyou.app.dto.RouteSummary;
 import com.manqiyou.app.entity.Route;
 import com.manqiyou.app.service.RouteService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -15,42 +24,162 @@ import java.util.List;
 @RequestMapping("/api/routes")
 public class RouteController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_FEATURED_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final RouteService routeService;
+    private final JsonResponseCache responseCache;
+    private final CatalogVersion catalogVersion;
 
-    public RouteController(RouteService routeService) {
+    public RouteController(RouteService routeService, JsonResponseCache responseCache,
+                           CatalogVersion catalogVersion) {
         this.routeService = routeService;
+        this.responseCache = responseCache;
+        this.catalogVersion = catalogVersion;
     }
 
     /**
      * 获取热门线路
      */
     @GetMapping("/featured")
-    public Result<List<Route>> getFeaturedRoutes(
-            @RequestParam(defaultValue = "4") int limit) {
+    public Result<List<RouteSummary>> getFeaturedRoutes(
+            @RequestParam(defaultValue = "4") int limit,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (limit < 1 || limit > MAX_FEATURED_LIMIT) {
+            return Result.error(400, "limit 取值范围为 1-" + MAX_FEATURED_LIMIT);
+        }
+        if (responseCache.write("featured:" + limit, catalogVersion.routes(),
+                () -> Result.success(routeService.getFeaturedRoutes(limit)), request, response)) {
+            return null;
+        }
         return Result.success(routeService.getFeaturedRoutes(limit));
     }
 
     /**
      * 分页查询线路
+     * 传入 cursor 参数（首页传空值）时使用游标分页，返回 nextCursor 且不统计总数；
+     * 否则使用 page/size 分页（管理后台）。
+     * sort 可选 price、distance、duration、featured，order 为 asc/desc；
+     * priceMin/priceMax、distanceMin/distanceMax、durationMin/durationMax 为闭区间筛选
      */
     @GetMapping
-    public Result<Page<Route>> getRoutes(
+    public Result<?> getRoutes(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            RouteQuery query) {
+        try {
+            query.validate();
+        } catch (IllegalArgumentException e) {
+            return Result.error(400, e.getMessage());
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return Result.error(400, "size 取值范围为 1-" + MAX_PAGE_SIZE);
+        }
+        if (cursor != null) {
+            if (!query.isDefaultOrder()) {
+                return Result.error(400, "游标分页仅支持默认排序");
+            }
+            try {
+                return Result.success(routeService.getRoutesByCursor(cursor, size, query));
+            } catch (IllegalArgumentException e) {
+                return Result.error(400, e.getMessage());
+            }
+        }
+        if (page < 1) {
+            return Result.error(400, "page 必须大于 0");
+        }
+        return Result.success(routeService.getRoutes(page, size, query));
+    }
+
+    /**
+     * 筛选项计数
+     */
+    @GetMapping("/facets")
+    public Result<RouteFacets> getRouteFacets(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String difficulty) {
-        return Result.success(routeService.getRoutes(page, size, categoryId, difficulty));
+        RouteFacets facets = routeService.getRouteFacets(categoryId, difficulty);
+        if (facets == null) {
+            return Result.error(503, "线路索引暂不可用");
+        }
+        return Result.success(facets);
+    }
+
+    /**
+     * 全文检索线路
+     */
+    @GetMapping("/search")
+    public Result<List<RouteSearchHit>> searchRoutes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return Result.error(400, "搜索关键词不能为空");
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            return Result.error(400, "搜索关键词过长");
+        }
+        List<RouteSearchHit> hits = routeService.searchRoutes(q, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT));
+        if (hits == null) {
+            return Result.error(503, "搜索索引暂不可用");
+        }
+        return Result.success(hits);
+    }
+
+    /**
+     * 批量获取线路详情
+     */
+    @GetMapping("/batch")
+    public Result<RouteBatchResult> getRouteDetails(@RequestParam List<Long> ids) {
+        return batchResult(ids);
+    }
+
+    /**
+     * 批量获取线路详情（id 较多时使用）
+     */
+    @PostMapping("/batch")
+    public Result<RouteBatchResult> postRouteDetails(@RequestBody BatchRequest request) {
+        return batchResult(request.getIds());
+    }
+
+    private Result<RouteBatchResult> batchResult(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Result.error(400, "ids 不能为空");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return Result.error(400, "一次最多查询 " + MAX_BATCH_SIZE + " 条线路");
+        }
+        return Result.success(routeService.getRouteDetails(ids));
     }
 
     /**
      * 获取线路详情
      */
     @GetMapping("/{id}")
-    public Result<Route> getRouteDetail(@PathVariable Long id) {
+    public Result<Route> getRouteDetail(@PathVariable Long id,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (responseCache.write("route:" + id, catalogVersion.routes(),
+                () -> routeDetailResult(id), request, response)) {
+            return null;
+        }
+        return routeDetailResult(id);
+    }
+
+    private Result<Route> routeDetailResult(Long id) {
         Route route = routeService.getRouteDetail(id);
         if (route == null) {
             return Result.error(404, "线路不存在");
         }
         return Result.success(route);
     }
+
+    // Request DTOs
+    public static class BatchRequest {
+        private List<Long> ids;
+        public List<Long> getIds() { return ids; }
+        public void setIds(List<Long> ids) { this.ids = ids; }
+    }
 }
@@ -0,0 +1,30 @@
+package com.manqiyou.app.dto;
+
+import com.manqiyou.app.entity.Route;
+
+import java.util.List;
+
+/**
+ * 批量线路详情
+ * items 按请求顺序排列，missingIds 为不存在或未上架的线路 id
+ */
+public class RouteBatchResult {
+
+    private List<Route> items;
+    private List<Long> missingIds;
+
+    public RouteBatchResult() {
+    }
+
+    public RouteBatchResult(List<Route> items, List<Long> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    // Getters and Setters
+    public List<Route> getItems() { return items; }
+    public void setItems(List<Route> items) { this.items = items; }
+
+    public List<Long> getMissingIds() { return missingIds; }
+    public void setMissingIds(List<Long> missingIds) { this.missingIds = missingIds; }
+}
@@ -0,0 +1,28 @@
+package com.manqiyou.app.dto;
+
+import java.util.Map;
+
+/**
+ * 线路筛选项计数
+ * 每个维度的计数都基于其余维度的当前筛选条件，便于前端在筛选项旁显示“(n)”
+ */
+public class RouteFacets {
+
+    private int total;
+    private Map<Long, Integer> categories;
+    private Map<String, Integer> difficulties;
+    private int featured;
+
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public Map<Long, Integer> getCategories() { return categories; }
+    public void setCategories(Map<Long, Integer> categories) { this.categories = categories; }
+
+    public Map<String, Integer> getDifficulties() { return difficulties; }
+    public void setDifficulties(Map<String, Integer> difficulties) { this.difficulties = difficulties; }
+
+    public int getFeatured() { return featured; }
+    public void setFeatured(int featured) { this.featured = featured; }
+}
@@ -0,0 +1,87 @@
+package com.manqiyou.app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 线路列表查询条件
+ * 由请求参数绑定：categoryId、difficulty、sort、order 及价格/里程/天数区间（闭区间，任一端可省略）
+ */
+public class RouteQuery {
+
+    private Long categoryId;
+    private String difficulty;
+    private String sort;
+    private String order;
+    private BigDecimal priceMin;
+    private BigDecimal priceMax;
+    private BigDecimal distanceMin;
+    private BigDecimal distanceMax;
+    private Integer durationMin;
+    private Integer durationMax;
+
+    /**
+     * 校验排序参数，非法时抛出 IllegalArgumentException
+     */
+    public void validate() {
+        sortKey();
+        descending();
+    }
+
+    public RouteSort sortKey() {
+        return RouteSort.of(sort);
+    }
+
+    /**
+     * 是否降序；未指定 order 时使用排序字段的默认方向
+     */
+    public boolean descending() {
+        if (order == null || order.isEmpty()) {
+            return sortKey().isDefaultDescending();
+        }
+        if ("asc".equalsIgnoreCase(order)) {
+            return false;
+        }
+        if ("desc".equalsIgnoreCase(order)) {
+            return true;
+        }
+        throw new IllegalArgumentException("order 取值为 asc 或 desc");
+    }
+
+    /**
+     * 是否使用默认排序（sort_order 升序）
+     */
+    public boolean isDefaultOrder() {
+        return sortKey() == RouteSort.DEFAULT && !descending();
+    }
+
+    // Getters and Setters
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+
+    public String getOrder() { return order; }
+    public void setOrder(String order) { this.order = order; }
+
+    public BigDecimal getPriceMin() { return priceMin; }
+    public void setPriceMin(BigDecimal priceMin) { this.priceMin = priceMin; }
+
+    public BigDecimal getPriceMax() { return priceMax; }
+    public void setPriceMax(BigDecimal priceMax) { this.priceMax = priceMax; }
+
+    public BigDecimal getDistanceMin() { return distanceMin; }
+    public void setDistanceMin(BigDecimal distanceMin) { this.distanceMin = distanceMin; }
+
+    public BigDecimal getDistanceMax() { return distanceMax; }
+    public void setDistanceMax(BigDecimal distanceMax) { this.distanceMax = distanceMax; }
+
+    public Integer getDurationMin() { return durationMin; }
+    public void setDurationMin(Integer durationMin) { this.durationMin = durationMin; }
+
+    public Integer getDurationMax() { return durationMax; }
+    public void setDurationMax(Integer durationMax) { this.durationMax = durationMax; }
+}
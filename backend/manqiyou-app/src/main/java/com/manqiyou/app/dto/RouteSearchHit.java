@@ -0,0 +1,33 @@
+package com.manqiyou.app.dto;
+
+import java.util.Map;
+
+/**
+ * 线路搜索结果
+ * highlights 中的文本已做 HTML 转义，命中词以 &lt;em&gt; 标记
+ */
+public class RouteSearchHit {
+
+    private RouteSummary route;
+    private double score;
+    private Map<String, String> highlights;
+
+    public RouteSearchHit() {
+    }
+
+    public RouteSearchHit(RouteSummary route, double score, Map<String, String> highlights) {
+        this.route = route;
+        this.score = score;
+        this.highlights = highlights;
+    }
+
+    // Getters and Setters
+    public RouteSummary getRoute() { return route; }
+    public void setRoute(RouteSummary route) { this.route = route; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    public Map<String, String> getHighlights() { return highlights; }
+    public void setHighlights(Map<String, String> highlights) { this.highlights = highlights; }
+}
@@ -0,0 +1,50 @@
+package com.manqiyou.app.dto;
+
+import java.util.Locale;
+
+/**
+ * 线路列表排序字段
+ */
+public enum RouteSort {
+
+    /**
+     * 默认按 sort_order 排序
+     */
+    DEFAULT("sort_order", false),
+    PRICE("price", false),
+    DISTANCE("distance", false),
+    DURATION("duration", false),
+    /**
+     * 热门优先
+     */
+    FEATURED("featured", true);
+
+    private final String column;
+    private final boolean defaultDescending;
+
+    RouteSort(String column, boolean defaultDescending) {
+        this.column = column;
+        this.defaultDescending = defaultDescending;
+    }
+
+    /**
+     * routes 表中的列名
+     */
+    public String getColumn() { return column; }
+
+    public boolean isDefaultDescending() { return defaultDescending; }
+
+    /**
+     * 解析请求参数，为空时返回 DEFAULT
+     */
+    public static RouteSort of(String value) {
+        if (value == null || value.isEmpty()) {
+            return DEFAULT;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的排序字段: " + value);
+        }
+    }
+}
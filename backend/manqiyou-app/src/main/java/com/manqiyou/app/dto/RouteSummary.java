@@ -0,0 +1,85 @@
+package com.manqiyou.app.dto;
+
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.manqiyou.app.entity.Route;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 线路列表摘要
+ * 列表卡片只需要的字段，不包含 description、images 等大字段
+ */
+public class RouteSummary {
+
+    /**
+     * 摘要查询需要的字段
+     */
+    public static final List<SFunction<Route, ?>> COLUMNS = List.of(
+        Route::getId, Route::getName, Route::getNameEn, Route::getCoverImage, Route::getCategoryId,
+        Route::getDifficulty, Route::getDuration, Route::getDistance, Route::getPrice,
+        Route::getFeatured, Route::getSortOrder
+    );
+
+    private Long id;
+    private String name;
+    private String nameEn;
+    private String coverImage;
+    private Long categoryId;
+    private String difficulty;
+    private Integer duration;
+    private BigDecimal distance;
+    private BigDecimal price;
+    private Boolean featured;
+    private Integer sortOrder;
+
+    public static RouteSummary from(Route route) {
+        RouteSummary summary = new RouteSummary();
+        summary.setId(route.getId());
+        summary.setName(route.getName());
+        summary.setNameEn(route.getNameEn());
+        summary.setCoverImage(route.getCoverImage());
+        summary.setCategoryId(route.getCategoryId());
+        summary.setDifficulty(route.getDifficulty());
+        summary.setDuration(route.getDuration());
+        summary.setDistance(route.getDistance());
+        summary.setPrice(route.getPrice());
+        summary.setFeatured(route.getFeatured());
+        summary.setSortOrder(route.getSortOrder());
+        return summary;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getNameEn() { return nameEn; }
+    public void setNameEn(String nameEn) { this.nameEn = nameEn; }
+
+    public String getCoverImage() { return coverImage; }
+    public void setCoverImage(String coverImage) { this.coverImage = coverImage; }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public String getDifficulty() { return difficulty; }
+    public void setDifficulty(String difficulty) { this.difficulty = difficulty; }
+
+    public Integer getDuration() { return duration; }
+    public void setDuration(Integer duration) { this.duration = duration; }
+
+    public BigDecimal getDistance() { return distance; }
+    public void setDistance(BigDecimal distance) { this.distance = distance; }
+
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+
+    public Boolean getFeatured() { return featured; }
+    public void setFeatured(Boolean featured) { this.featured = featured; }
+
+    public Integer getSortOrder() { return sortOrder; }
+    public void setSortOrder(Integer sortOrder) { this.sortOrder = sortOrder; }
+}
@@ -3,6 +3,7 @@ package com.manqiyou.app.entity;
 import com.baomidou.mybatisplus.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * 线路分类实体
@@ -44,4 +45,22 @@ public class Category {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Category other)) return false;
+        return Objects.equals(id, other.id)
+            && Objects.equals(name, other.name)
+            && Objects.equals(nameEn, other.nameEn)
+            && Objects.equals(icon, other.icon)
+            && Objects.equals(sortOrder, other.sortOrder)
+            && Objects.equals(createdAt, other.createdAt)
+            && Objects.equals(updatedAt, other.updatedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, nameEn, icon, sortOrder, createdAt, updatedAt);
+    }
 }
@@ -1,14 +1,17 @@
 package com.manqiyou.app.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.manqiyou.common.core.mybatis.ImageListTypeHandler;
+import org.apache.ibatis.type.JdbcType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 骑游线路实体
  */
-@TableName("routes")
+@TableName(value = "routes", autoResultMap = true)
 public class Route {
     
     @TableId(type = IdType.AUTO)
@@ -18,7 +21,8 @@ public class Route {
     private String summary;
     private String description;
     private String coverImage;
-    private String images;
+    @TableField(typeHandler = ImageListTypeHandler.class, jdbcType = JdbcType.VARCHAR)
+    private List<String> images;
     private Long categoryId;
     private String difficulty;
     private Integer duration;
@@ -57,8 +61,8 @@ public class Route {
     public String getCoverImage() { return coverImage; }
     public void setCoverImage(String coverImage) { this.coverImage = coverImage; }
     
-    public String getImages() { return images; }
-    public void setImages(String images) { this.images = images; }
+    public List<String> getImages() { return images; }
+    public void setImages(List<String> images) { this.images = images; }
     
     public Long getCategoryId() { return categoryId; }
     public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
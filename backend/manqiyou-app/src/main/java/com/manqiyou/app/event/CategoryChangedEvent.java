@@ -0,0 +1,18 @@
+package com.manqiyou.app.event;
+
+/**
+ * 分类数据变更事件
+ * categoryId 为 null 表示批量或条件变更
+ */
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() { return categoryId; }
+
+    public boolean isAll() { return categoryId == null; }
+}
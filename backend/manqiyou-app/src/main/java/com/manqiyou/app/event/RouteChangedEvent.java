@@ -0,0 +1,22 @@
+package com.manqiyou.app.event;
+
+/**
+ * 线路数据变更事件
+ * routeId 为 null 表示批量或条件变更，订阅方应按全部线路处理
+ */
+public class RouteChangedEvent {
+
+    private final Long routeId;
+
+    public RouteChangedEvent(Long routeId) {
+        this.routeId = routeId;
+    }
+
+    public static RouteChangedEvent all() {
+        return new RouteChangedEvent(null);
+    }
+
+    public Long getRouteId() { return routeId; }
+
+    public boolean isAll() { return routeId == null; }
+}
@@ -0,0 +1,444 @@
+package com.manqiyou.app.index;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.manqiyou.app.dto.RouteFacets;
+import com.manqiyou.app.dto.RouteQuery;
+import com.manqiyou.app.dto.RouteSort;
+import com.manqiyou.app.dto.RouteSummary;
+import com.manqiyou.app.entity.Route;
+import com.manqiyou.app.event.RouteChangedEvent;
+import com.manqiyou.app.mapper.RouteMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 线路内存索引
+ * 线路目录规模小且很少变更，全部摘要常驻内存：按 (sort_order, id) 预排序存放，
+ * 分类、难度、热门、状态各维度用位图表示，筛选组合通过位图求交完成，不访问数据库。
+ * 各排序字段另有预排序的槽位数组，用于按这些字段排序和区间筛选（二分定位）。
+ * 排序规则与 RouteService 的数据库查询一致：取值相同的按 (sort_order, id) 升序，升降序都一样；
+ * 未填写取值的线路视为最大（与 PostgreSQL 对 NULL 的默认排序相同），升序排在最后、降序排在最前。
+ * sort_order 在表中非空，默认为 0。
+ * 查询读取不可变快照，无锁；线路变更时只从数据库重新加载变更的那一条，再在内存中重建快照。
+ */
+@Component
+public class RouteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteIndex.class);
+
+    private static final int STATUS_PUBLISHED = 1;
+
+    private static final List<SFunction<Route, ?>> INDEX_COLUMNS = new ArrayList<>(RouteSummary.COLUMNS);
+
+    static {
+        INDEX_COLUMNS.add(Route::getStatus);
+    }
+
+    private final RouteMapper routeMapper;
+    private final boolean enabled;
+
+    /**
+     * 当前全部线路（含未上架），重建快照的数据源，受 this 保护
+     */
+    private final Map<Long, IndexedRoute> routes = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    public RouteIndex(RouteMapper routeMapper,
+                      @Value("${manqiyou.route-index.enabled:true}") boolean enabled) {
+        this.routeMapper = routeMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 应用启动完成后全量构建；构建完成前查询回退到数据库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (enabled) {
+            rebuildAll();
+        }
+    }
+
+    @EventListener
+    @Order(0)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isAll()) {
+            rebuildAll();
+        } else {
+            refresh(event.getRouteId());
+        }
+    }
+
+    /**
+     * 索引是否可用
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * 全量重建
+     */
+    public synchronized void rebuildAll() {
+        List<Route> loaded = routeMapper.selectList(indexQuery());
+        routes.clear();
+        for (Route route : loaded) {
+            routes.put(route.getId(), new IndexedRoute(RouteSummary.from(route), route.getStatus()));
+        }
+        publish();
+        log.info("线路索引已重建，共 {} 条线路", routes.size());
+    }
+
+    /**
+     * 单条线路变更：只重新加载该线路
+     */
+    public synchronized void refresh(Long routeId) {
+        List<Route> loaded = routeMapper.selectList(indexQuery().eq(Route::getId, routeId));
+        if (loaded.isEmpty()) {
+            routes.remove(routeId);
+        } else {
+            Route route = loaded.get(0);
+            routes.put(routeId, new IndexedRoute(RouteSummary.from(route), route.getStatus()));
+        }
+        publish();
+    }
+
+    /**
+     * 分页查询已上架线路
+     */
+    public IPage<RouteSummary> query(int page, int size, RouteQuery query) {
+        Snapshot current = snapshot;
+        BitSet matched = current.match(query);
+        Page<RouteSummary> result = new Page<>(page, size, matched.cardinality());
+        List<RouteSummary> records = new ArrayList<>();
+        long skip = (long) Math.max(page - 1, 0) * size;
+        RouteSort sort = query.sortKey();
+        boolean descending = query.descending();
+        if (sort == RouteSort.DEFAULT && !descending) {
+            for (int slot = matched.nextSetBit(0); slot >= 0 && records.size() < size; slot = matched.nextSetBit(slot + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    records.add(current.slots[slot]);
+                }
+            }
+        } else {
+            int[] order = current.columns.get(sort).order(descending);
+            for (int i = 0; i < order.length && records.size() < size; i++) {
+                int slot = order[i];
+                if (!matched.get(slot)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                records.add(current.slots[slot]);
+            }
+        }
+        result.setRecords(records);
+        return result;
+    }
+
+    /**
+     * 从 (sortOrder, id) 之后开始取已上架线路，position 为 null 时从头开始
+     */
+    public List<RouteSummary> seek(Integer sortOrder, Long id, int limit, RouteQuery query) {
+        Snapshot current = snapshot;
+        BitSet matched = current.match(query);
+        int from = id == null ? 0 : current.slotAfter(sortOrder, id);
+        List<RouteSummary> records = new ArrayList<>();
+        for (int slot = matched.nextSetBit(from); slot >= 0 && records.size() < limit; slot = matched.nextSetBit(slot + 1)) {
+            records.add(current.slots[slot]);
+        }
+        return records;
+    }
+
+    /**
+     * 热门线路
+     */
+    public List<RouteSummary> featured(int limit) {
+        Snapshot current = snapshot;
+        BitSet matched = current.published();
+        matched.and(current.featured);
+        List<RouteSummary> records = new ArrayList<>();
+        for (int slot = matched.nextSetBit(0); slot >= 0 && records.size() < limit; slot = matched.nextSetBit(slot + 1)) {
+            records.add(current.slots[slot]);
+        }
+        return records;
+    }
+
+    /**
+     * 筛选项计数
+     */
+    public RouteFacets facets(Long categoryId, String difficulty) {
+        Snapshot current = snapshot;
+        RouteFacets facets = new RouteFacets();
+        BitSet matched = current.match(categoryId, difficulty);
+        facets.setTotal(matched.cardinality());
+
+        BitSet byDifficulty = current.match(null, difficulty);
+        Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+        current.byCategory.forEach((key, bits) -> categoryCounts.put(key, intersectCount(byDifficulty, bits)));
+        facets.setCategories(categoryCounts);
+
+        BitSet byCategory = current.match(categoryId, null);
+        Map<String, Integer> difficultyCounts = new LinkedHashMap<>();
+        current.byDifficulty.forEach((key, bits) -> difficultyCounts.put(key, intersectCount(byCategory, bits)));
+        facets.setDifficulties(difficultyCounts);
+
+        facets.setFeatured(intersectCount(matched, current.featured));
+        return facets;
+    }
+
+    private static int intersectCount(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private LambdaQueryWrapper<Route> indexQuery() {
+        LambdaQueryWrapper<Route> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(true, INDEX_COLUMNS);
+        return wrapper;
+    }
+
+    /**
+     * 由当前线路集合构建新快照并发布，调用方持有 this 锁
+     */
+    private void publish() {
+        List<IndexedRoute> sorted = new ArrayList<>(routes.values());
+        sorted.sort(Comparator.comparingInt((IndexedRoute r) -> sortOrderOf(r.summary))
+            .thenComparing(r -> r.summary.getId()));
+        snapshot = new Snapshot(sorted);
+    }
+
+    private static int sortOrderOf(RouteSummary summary) {
+        return summary.getSortOrder() == null ? 0 : summary.getSortOrder();
+    }
+
+    /**
+     * 排序字段在摘要上的取值，null 表示未填写
+     */
+    private static Double keyOf(RouteSort sort, RouteSummary summary) {
+        return switch (sort) {
+            case PRICE -> summary.getPrice() == null ? null : summary.getPrice().doubleValue();
+            case DISTANCE -> summary.getDistance() == null ? null : summary.getDistance().doubleValue();
+            case DURATION -> summary.getDuration() == null ? null : summary.getDuration().doubleValue();
+            case FEATURED -> summary.getFeatured() == null ? null : summary.getFeatured() ? 1.0 : 0.0;
+            case DEFAULT -> (double) sortOrderOf(summary);
+        };
+    }
+
+    private static Double toDouble(Number value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    private record IndexedRoute(RouteSummary summary, Integer status) {
+    }
+
+    /**
+     * 按单个字段预排序的槽位数组
+     * 取值相同的按默认顺序排列；未填写取值的线路升序排在最后、降序排在最前，不会命中区间筛选
+     */
+    private static final class SortedColumn {
+        private final int[] ascending;
+        private final int[] descending;
+        /**
+         * 有取值部分的升序键，与 ascending 前 keys.length 个槽位对应
+         */
+        private final double[] keys;
+
+        private SortedColumn(RouteSort sort, RouteSummary[] slots) {
+            List<Integer> present = new ArrayList<>(slots.length);
+            List<Integer> absent = new ArrayList<>();
+            double[] values = new double[slots.length];
+            for (int slot = 0; slot < slots.length; slot++) {
+                Double key = keyOf(sort, slots[slot]);
+                if (key == null) {
+                    absent.add(slot);
+                } else {
+                    values[slot] = key;
+                    present.add(slot);
+                }
+            }
+            List<Integer> asc = new ArrayList<>(present);
+            asc.sort(Comparator.comparingDouble((Integer slot) -> values[slot]).thenComparingInt(slot -> slot));
+            List<Integer> desc = new ArrayList<>(present);
+            desc.sort(Comparator.comparingDouble((Integer slot) -> -values[slot]).thenComparingInt(slot -> slot));
+
+            keys = new double[asc.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = values[asc.get(i)];
+            }
+            asc.addAll(absent);
+            desc.addAll(0, absent);
+            ascending = asc.stream().mapToInt(Integer::intValue).toArray();
+            descending = desc.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private int[] order(boolean descending) {
+            return descending ? this.descending : ascending;
+        }
+
+        /**
+         * 取值落在 [min, max] 内的槽位，任一端为 null 表示不限
+         */
+        private BitSet range(Double min, Double max) {
+            int from = min == null ? 0 : lowerBound(min);
+            int to = max == null ? keys.length : upperBound(max);
+            BitSet bits = new BitSet();
+            for (int i = from; i < to; i++) {
+                bits.set(ascending[i]);
+            }
+            return bits;
+        }
+
+        /**
+         * 第一个 &gt;= value 的位置
+         */
+        private int lowerBound(double value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 第一个 &gt; value 的位置
+         */
+        private int upperBound(double value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * 不可变索引快照
+     */
+    private static final class Snapshot {
+        private final RouteSummary[] slots;
+        private final Map<Integer, BitSet> byStatus = new HashMap<>();
+        private final Map<Long, BitSet> byCategory = new LinkedHashMap<>();
+        private final Map<String, BitSet> byDifficulty = new LinkedHashMap<>();
+        private final BitSet featured = new BitSet();
+        private final Map<RouteSort, SortedColumn> columns = new EnumMap<>(RouteSort.class);
+
+        private Snapshot(List<IndexedRoute> sorted) {
+            slots = new RouteSummary[sorted.size()];
+            for (int slot = 0; slot < sorted.size(); slot++) {
+                IndexedRoute route = sorted.get(slot);
+                RouteSummary summary = route.summary;
+                slots[slot] = summary;
+                if (route.status != null) {
+                    byStatus.computeIfAbsent(route.status, k -> new BitSet()).set(slot);
+                }
+                if (summary.getCategoryId() != null) {
+                    byCategory.computeIfAbsent(summary.getCategoryId(), k -> new BitSet()).set(slot);
+                }
+                if (summary.getDifficulty() != null) {
+                    byDifficulty.computeIfAbsent(summary.getDifficulty(), k -> new BitSet()).set(slot);
+                }
+                if (Boolean.TRUE.equals(summary.getFeatured())) {
+                    featured.set(slot);
+                }
+            }
+            for (RouteSort sort : RouteSort.values()) {
+                columns.put(sort, new SortedColumn(sort, slots));
+            }
+        }
+
+        /**
+         * 已上架线路位图（副本，可修改）
+         */
+        private BitSet published() {
+            BitSet bits = byStatus.get(STATUS_PUBLISHED);
+            return bits == null ? new BitSet() : (BitSet) bits.clone();
+        }
+
+        private BitSet match(Long categoryId, String difficulty) {
+            BitSet matched = published();
+            if (categoryId != null) {
+                matched.and(byCategory.getOrDefault(categoryId, new BitSet()));
+            }
+            if (difficulty != null && !difficulty.isEmpty()) {
+                matched.and(byDifficulty.getOrDefault(difficulty, new BitSet()));
+            }
+            return matched;
+        }
+
+        private BitSet match(RouteQuery query) {
+            BitSet matched = match(query.getCategoryId(), query.getDifficulty());
+            and(matched, RouteSort.PRICE, query.getPriceMin(), query.getPriceMax());
+            and(matched, RouteSort.DISTANCE, query.getDistanceMin(), query.getDistanceMax());
+            and(matched, RouteSort.DURATION, query.getDurationMin(), query.getDurationMax());
+            return matched;
+        }
+
+        private void and(BitSet matched, RouteSort sort, Number min, Number max) {
+            if (min != null || max != null) {
+                matched.and(columns.get(sort).range(toDouble(min), toDouble(max)));
+            }
+        }
+
+        /**
+         * 第一个排在 (sortOrder, id) 之后的槽位
+         */
+        private int slotAfter(Integer sortOrder, Long id) {
+            int order = sortOrder == null ? 0 : sortOrder;
+            int low = 0;
+            int high = slots.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                RouteSummary summary = slots[mid];
+                int cmp = Integer.compare(sortOrderOf(summary), order);
+                if (cmp == 0) {
+                    cmp = Long.compare(summary.getId(), id);
+                }
+                if (cmp <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.manqiyou.app.index;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.manqiyou.app.dto.RouteSearchHit;
+import com.manqiyou.app.dto.RouteSummary;
+import com.manqiyou.app.entity.Route;
+import com.manqiyou.app.event.RouteChangedEvent;
+import com.manqiyou.app.mapper.RouteMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 线路全文检索倒排索引
+ * 对 name、nameEn、summary、description 建立倒排表，按字段加权后用 BM25 打分，
+ * 返回结果带命中词高亮。启动时从 RouteMapper 全量构建，线路变更时只更新变更的文档。
+ * 只索引已上架线路（与列表接口相同的 status 条件）。
+ * 数据库读取在锁外进行，每次读取前领取递增的代号：重叠的加载中先读后写的旧结果被丢弃，不会覆盖更新的数据。
+ */
+@Component
+public class RouteSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_BEFORE = 30;
+    private static final int SNIPPET_LENGTH = 120;
+    private static final int STATUS_PUBLISHED = 1;
+
+    private static final List<SFunction<Route, ?>> SEARCH_COLUMNS = new ArrayList<>(RouteSummary.COLUMNS);
+
+    static {
+        SEARCH_COLUMNS.add(Route::getSummary);
+        SEARCH_COLUMNS.add(Route::getDescription);
+    }
+
+    /**
+     * 检索字段及权重
+     */
+    private enum Field {
+        NAME(3.0f), NAME_EN(3.0f), SUMMARY(2.0f), DESCRIPTION(1.0f);
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final RouteMapper routeMapper;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 词项 -> (线路 id -> 加权词频)
+     */
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+    private volatile boolean ready;
+
+    /**
+     * 加载代号，每次读取数据库前领取
+     */
+    private final AtomicLong generations = new AtomicLong();
+    /**
+     * 已应用的最近一次全量重建的代号，以及之后应用的任意加载的最大代号，受写锁保护
+     */
+    private long fullGeneration;
+    private long appliedGeneration;
+    /**
+     * 全量重建之后单条刷新已应用的代号，受写锁保护
+     */
+    private final Map<Long, Long> refreshGenerations = new HashMap<>();
+
+    public RouteSearchIndex(RouteMapper routeMapper) {
+        this.routeMapper = routeMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuildAll();
+    }
+
+    @EventListener
+    @Order(0)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (event.isAll()) {
+            rebuildAll();
+        } else {
+            refresh(event.getRouteId());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 全量重建
+     * 读取期间已有更新的全量重建完成时放弃本次结果；只有更新的单条刷新完成时重新读取，
+     * 避免用旧数据覆盖刚刷新的线路
+     */
+    public void rebuildAll() {
+        while (true) {
+            long generation = generations.incrementAndGet();
+            List<Route> loaded = routeMapper.selectList(searchQuery());
+            lock.writeLock().lock();
+            try {
+                if (generation < fullGeneration) {
+                    return;
+                }
+                if (generation > appliedGeneration) {
+                    postings.clear();
+                    documents.clear();
+                    totalLength = 0;
+                    for (Route route : loaded) {
+                        add(route);
+                    }
+                    fullGeneration = generation;
+                    appliedGeneration = generation;
+                    refreshGenerations.clear();
+                    ready = true;
+                    break;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("线路检索索引已重建，共 {} 篇文档，{} 个词项", documents.size(), postings.size());
+    }
+
+    /**
+     * 单条线路变更：删除旧文档后重新加入；读取期间该线路已被更新的加载覆盖时放弃本次结果
+     */
+    public void refresh(Long routeId) {
+        long generation = generations.incrementAndGet();
+        List<Route> loaded = routeMapper.selectList(searchQuery().eq(Route::getId, routeId));
+        lock.writeLock().lock();
+        try {
+            if (generation < fullGeneration || generation < refreshGenerations.getOrDefault(routeId, 0L)) {
+                return;
+            }
+            remove(routeId);
+            if (!loaded.isEmpty()) {
+                add(loaded.get(0));
+            }
+            refreshGenerations.put(routeId, generation);
+            appliedGeneration = Math.max(appliedGeneration, generation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 检索，按相关度降序返回
+     */
+    public List<RouteSearchHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (TextTokenizer.Token token : TextTokenizer.tokenizeQuery(query)) {
+            terms.add(token.term());
+        }
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map.Entry<Document, Double>> scored;
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            double avgLength = docCount == 0 ? 1 : totalLength / docCount;
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Map<Long, Float> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, tf) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length / avgLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+            scored = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> scored.add(Map.entry(documents.get(id), score)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scored.sort(Map.Entry.<Document, Double>comparingByValue().reversed());
+        List<RouteSearchHit> hits = new ArrayList<>(Math.min(limit, scored.size()));
+        for (Map.Entry<Document, Double> entry : scored.subList(0, Math.min(limit, scored.size()))) {
+            Document doc = entry.getKey();
+            hits.add(new RouteSearchHit(doc.summary, entry.getValue(), highlight(doc, terms)));
+        }
+        return hits;
+    }
+
+    /**
+     * 已上架线路
+     */
+    private LambdaQueryWrapper<Route> searchQuery() {
+        LambdaQueryWrapper<Route> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(true, SEARCH_COLUMNS);
+        wrapper.eq(Route::getStatus, STATUS_PUBLISHED);
+        return wrapper;
+    }
+
+    /**
+     * 加入文档，调用方持有写锁
+     */
+    private void add(Route route) {
+        Document doc = new Document(RouteSummary.from(route), route.getSummary(), route.getDescription());
+        Map<String, Float> termFrequencies = new HashMap<>();
+        float length = 0;
+        for (Field field : Field.values()) {
+            for (TextTokenizer.Token token : TextTokenizer.tokenize(doc.text(field))) {
+                termFrequencies.merge(token.term(), field.weight, Float::sum);
+                length += field.weight;
+            }
+        }
+        doc.terms = termFrequencies.keySet();
+        doc.length = length;
+        termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(route.getId(), tf));
+        documents.put(route.getId(), doc);
+        totalLength += length;
+    }
+
+    /**
+     * 删除文档，调用方持有写锁
+     */
+    private void remove(Long routeId) {
+        Document doc = documents.remove(routeId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(routeId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= doc.length;
+    }
+
+    private Map<String, String> highlight(Document doc, Set<String> terms) {
+        Map<String, String> highlights = new LinkedHashMap<>();
+        putHighlight(highlights, "name", doc.text(Field.NAME), terms, false);
+        putHighlight(highlights, "nameEn", doc.text(Field.NAME_EN), terms, false);
+        putHighlight(highlights, "summary", doc.text(Field.SUMMARY), terms, false);
+        putHighlight(highlights, "description", doc.text(Field.DESCRIPTION), terms, true);
+        return highlights;
+    }
+
+    /**
+     * 字段有命中时输出高亮文本；snippet 为 true 时只截取首个命中附近的片段
+     */
+    private void putHighlight(Map<String, String> highlights, String key, String text,
+                              Set<String> terms, boolean snippet) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        boolean[] marked = new boolean[text.length()];
+        int firstHit = -1;
+        for (TextTokenizer.Token token : TextTokenizer.tokenize(text)) {
+            if (terms.contains(token.term())) {
+                for (int i = token.start(); i < token.end(); i++) {
+                    marked[i] = true;
+                }
+                if (firstHit < 0 || token.start() < firstHit) {
+                    firstHit = token.start();
+                }
+            }
+        }
+        if (firstHit < 0) {
+            return;
+        }
+        int from = 0;
+        int to = text.length();
+        if (snippet) {
+            from = Math.max(0, firstHit - SNIPPET_BEFORE);
+            to = Math.min(text.length(), from + SNIPPET_LENGTH);
+        }
+        StringBuilder sb = new StringBuilder();
+        if (from > 0) {
+            sb.append("…");
+        }
+        for (int i = from; i < to; i++) {
+            if (marked[i] && (i == from || !marked[i - 1])) {
+                sb.append("<em>");
+            }
+            appendEscaped(sb, text.charAt(i));
+            if (marked[i] && (i + 1 == to || !marked[i + 1])) {
+                sb.append("</em>");
+            }
+        }
+        if (to < text.length()) {
+            sb.append("…");
+        }
+        highlights.put(key, sb.toString());
+    }
+
+    private static void appendEscaped(StringBuilder sb, char c) {
+        switch (c) {
+            case '<' -> sb.append("&lt;");
+            case '>' -> sb.append("&gt;");
+            case '&' -> sb.append("&amp;");
+            case '"' -> sb.append("&quot;");
+            default -> sb.append(c);
+        }
+    }
+
+    /**
+     * 索引文档
+     */
+    private static final class Document {
+        private final RouteSummary summary;
+        private final String summaryText;
+        private final String description;
+        private Set<String> terms;
+        private float length;
+
+        private Document(RouteSummary summary, String summaryText, String description) {
+            this.summary = summary;
+            this.summaryText = summaryText;
+            this.description = description;
+        }
+
+        private String text(Field field) {
+            return switch (field) {
+                case NAME -> summary.getName();
+                case NAME_EN -> summary.getNameEn();
+                case SUMMARY -> summaryText;
+                case DESCRIPTION -> description;
+            };
+        }
+    }
+}
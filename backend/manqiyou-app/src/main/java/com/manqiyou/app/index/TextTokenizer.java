@@ -0,0 +1,87 @@
+package com.manqiyou.app.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 中英文混合分词
+ * 中日韩文字按二元组（bigram）切分并附带单字，其余字母数字按单词切分并转小写。
+ * 每个词元记录其在原文中的起止位置，供高亮使用。
+ */
+public final class TextTokenizer {
+
+    private TextTokenizer() {
+    }
+
+    /**
+     * 词元
+     */
+    public record Token(String term, int start, int end) {
+    }
+
+    /**
+     * 索引分词：中文输出单字和二元组
+     */
+    public static List<Token> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查询分词：中文连续两个字及以上时只输出二元组，单字查询输出单字
+     */
+    public static List<Token> tokenizeQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<Token> tokenize(String text, boolean withUnigrams) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                int start = i;
+                while (i < length && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                emitCjk(text, start, i, withUnigrams, tokens);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && !isCjk(text.charAt(i)) && Character.isLetterOrDigit(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(text.substring(start, i).toLowerCase(Locale.ROOT), start, i));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static void emitCjk(String text, int start, int end, boolean withUnigrams, List<Token> tokens) {
+        if (end - start == 1) {
+            tokens.add(new Token(text.substring(start, end), start, end));
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            if (withUnigrams) {
+                tokens.add(new Token(text.substring(i, i + 1), i, i + 1));
+            }
+            if (i + 1 < end) {
+                tokens.add(new Token(text.substring(i, i + 2), i, i + 2));
+            }
+        }
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
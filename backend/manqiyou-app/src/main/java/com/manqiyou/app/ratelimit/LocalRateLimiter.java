@@ -0,0 +1,124 @@
+package com.manqiyou.app.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内限流器（单节点）
+ * 每个 key 只保存一个“理论到达时间”（GCRA，等价于令牌桶），用 CAS 更新，无锁。
+ * 桶已补满的 key 与不存在等价，由后台线程定期移除。key 数量达到上限时为新 key 腾出位置：
+ * 先清理已补满的桶，仍然已满时在少量样本中淘汰 TAT 最早（最接近补满，丢弃后多放行最少）的桶，
+ * 每个 key 始终使用自己的桶。
+ */
+@Component
+@ConditionalOnProperty(name = "manqiyou.rate-limit.mode", havingValue = "memory", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+
+    /**
+     * 已满时全量清理的最小间隔，避免每个新 key 都做一次 O(n) 扫描
+     */
+    private static final long FULL_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int EVICTION_SAMPLES = 16;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastFullSweep = new AtomicLong(System.nanoTime() - FULL_SWEEP_INTERVAL_NANOS);
+    private final int maxKeys;
+    private final ScheduledExecutorService sweeper;
+
+    public LocalRateLimiter(@Value("${manqiyou.rate-limit.max-keys:100000}") int maxKeys) {
+        this.maxKeys = maxKeys;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 30, 30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, double refillPerSecond) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+        long burst = interval * capacity;
+        AtomicLong bucket = bucket(key);
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long start = tat - now < 0 ? now : tat;
+            long next = start + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return Math.max(TimeUnit.NANOSECONDS.toMillis(wait), 1);
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            makeRoom();
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+    }
+
+    /**
+     * 腾出一个位置；并发插入时 key 数可能短暂略超上限
+     */
+    private void makeRoom() {
+        long now = System.nanoTime();
+        long last = lastFullSweep.get();
+        if (now - last >= FULL_SWEEP_INTERVAL_NANOS && lastFullSweep.compareAndSet(last, now)) {
+            sweep();
+            if (buckets.size() < maxKeys) {
+                return;
+            }
+        }
+        String victim = null;
+        long oldest = 0;
+        int sampled = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            long tat = entry.getValue().get();
+            if (victim == null || tat - oldest < 0) {
+                victim = entry.getKey();
+                oldest = tat;
+            }
+            if (++sampled >= EVICTION_SAMPLES) {
+                break;
+            }
+        }
+        if (victim != null) {
+            buckets.remove(victim);
+        }
+    }
+
+    /**
+     * 移除已补满的桶
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
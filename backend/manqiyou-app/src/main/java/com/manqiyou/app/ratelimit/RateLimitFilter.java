@@ -0,0 +1,132 @@
+package com.manqiyou.app.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manqiyou.app.common.Result;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 请求限流过滤器
+ * 位于 CORS 之后、安全过滤器之前，超限请求直接返回 429 和 Retry-After，不进入业务和数据库
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final UserKeyResolver userKeyResolver;
+    private final List<CompiledPolicy> policies = new ArrayList<>();
+    private final List<IpAddressMatcher> trustedProxies = new ArrayList<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper,
+                           UserKeyResolver userKeyResolver) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.userKeyResolver = userKeyResolver;
+        for (String proxy : properties.getTrustedProxies()) {
+            trustedProxies.add(new IpAddressMatcher(proxy.trim()));
+        }
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            if (policy.getPath() != null && !policy.getPath().isEmpty()) {
+                policies.add(new CompiledPolicy(PathPatternParser.defaultInstance.parse(policy.getPath()), policy));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || policies.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (CompiledPolicy compiled : policies) {
+            if (compiled.pattern.matches(path)) {
+                RateLimitProperties.Policy policy = compiled.policy;
+                long waitMillis = rateLimiter.tryAcquire(
+                    policy.getName() + ":" + keyOf(request, policy), policy.getCapacity(), policy.getRefillPerSecond());
+                if (waitMillis > 0) {
+                    reject(response, waitMillis, objectMapper);
+                    return;
+                }
+                break;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * 写出 429 响应，供过滤器和按名称限流的控制器共用
+     */
+    public static void reject(HttpServletResponse response, long waitMillis, ObjectMapper objectMapper)
+            throws IOException {
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(waitMillis)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), Result.error(429, "请求过于频繁，请稍后再试"));
+    }
+
+    public static long retryAfterSeconds(long waitMillis) {
+        return Math.max((waitMillis + 999) / 1000, 1);
+    }
+
+    private String keyOf(HttpServletRequest request, RateLimitProperties.Policy policy) {
+        if ("user".equals(policy.getKey())) {
+            String userId = userKeyResolver.userId(request);
+            if (userId != null) {
+                return "u:" + userId;
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    /**
+     * 客户端 IP：连接来自可信代理时取代理设置的请求头，否则取连接地址
+     */
+    String clientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String header = properties.getClientIpHeader();
+        if (header != null && !header.isEmpty() && isTrustedProxy(remoteAddr)) {
+            String ip = request.getHeader(header);
+            if (ip != null && !ip.isEmpty()) {
+                return ip.trim();
+            }
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String remoteAddr) {
+        for (IpAddressMatcher matcher : trustedProxies) {
+            if (matcher.matches(remoteAddr)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record CompiledPolicy(PathPattern pattern, RateLimitProperties.Policy policy) {
+    }
+}
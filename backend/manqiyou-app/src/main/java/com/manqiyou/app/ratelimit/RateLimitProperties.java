@@ -0,0 +1,93 @@
+package com.manqiyou.app.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 限流配置（manqiyou.rate-limit）
+ */
+@Component
+@ConfigurationProperties(prefix = "manqiyou.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 客户端 IP 所在的请求头（经反向代理时使用，如 X-Real-IP），为空时取连接地址
+     */
+    private String clientIpHeader;
+
+    /**
+     * 可信代理地址（IP 或 CIDR）：只有连接地址属于其中时才采用 clientIpHeader，
+     * 否则客户端可以伪造请求头绕过按 IP 限流。默认为本机和 docker-compose.prod.yml 的容器网络
+     */
+    private List<String> trustedProxies = new ArrayList<>(List.of("127.0.0.1", "::1", "172.28.0.0/16"));
+
+    /**
+     * 按顺序匹配，请求只受第一条匹配的策略约束
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getClientIpHeader() { return clientIpHeader; }
+    public void setClientIpHeader(String clientIpHeader) { this.clientIpHeader = clientIpHeader; }
+
+    public List<String> getTrustedProxies() { return trustedProxies; }
+    public void setTrustedProxies(List<String> trustedProxies) { this.trustedProxies = trustedProxies; }
+
+    public List<Policy> getPolicies() { return policies; }
+    public void setPolicies(List<Policy> policies) { this.policies = policies; }
+
+    /**
+     * 按名称查找策略，不存在时返回 null
+     */
+    public Policy getPolicy(String name) {
+        for (Policy policy : policies) {
+            if (name.equals(policy.getName())) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 限流策略
+     */
+    public static class Policy {
+
+        private String name;
+
+        /**
+         * 路径模式（如 /api/routes/**）；为空时不由过滤器匹配，只供代码按名称调用（如按手机号限流）
+         */
+        private String path;
+
+        /**
+         * 限流维度：ip 或 user（按验证通过的 JWT 中的用户 ID，未登录或 Token 无效时退化为 ip）
+         */
+        private String key = "ip";
+
+        private int capacity;
+        private double refillPerSecond;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+}
@@ -0,0 +1,15 @@
+package com.manqiyou.app.ratelimit;
+
+/**
+ * 令牌桶限流器
+ * 桶容量 capacity（允许的突发请求数），每秒补充 refillPerSecond 个令牌
+ */
+public interface RateLimiter {
+
+    /**
+     * 尝试为 key 取一个令牌
+     *
+     * @return 0 表示放行；大于 0 表示被限流，值为需要等待的毫秒数
+     */
+    long tryAcquire(String key, int capacity, double refillPerSecond);
+}
@@ -0,0 +1,62 @@
+package com.manqiyou.app.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Redis 限流器（多节点共享）
+ * GCRA 令牌桶在 Lua 脚本中原子执行，时间取 Redis 服务器时间，避免各节点时钟偏差。
+ * Redis 不可用时放行，限流故障不影响业务。
+ */
+@Component
+@ConditionalOnProperty(name = "manqiyou.rate-limit.mode", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    /**
+     * KEYS[1] 桶 key；ARGV[1] 每个令牌的间隔（微秒）；ARGV[2] 突发容量对应的时长（微秒）。
+     * 返回 0 表示放行，否则为需要等待的微秒数
+     */
+    private static final RedisScript<Long> SCRIPT = new DefaultRedisScript<>(
+        "local t = redis.call('TIME') "
+            + "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) "
+            + "local interval = tonumber(ARGV[1]) "
+            + "local burst = tonumber(ARGV[2]) "
+            + "local tat = tonumber(redis.call('GET', KEYS[1]) or now) "
+            + "if tat < now then tat = now end "
+            + "local nextTat = tat + interval "
+            + "local wait = nextTat - now - burst "
+            + "if wait > 0 then return wait end "
+            + "redis.call('SET', KEYS[1], string.format('%.0f', nextTat), 'PX', math.ceil((nextTat - now) / 1000)) "
+            + "return 0",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, double refillPerSecond) {
+        long interval = (long) (1_000_000 / refillPerSecond);
+        try {
+            Long wait = redisTemplate.execute(SCRIPT, List.of(KEY_PREFIX + key),
+                String.valueOf(interval), String.valueOf(interval * capacity));
+            return wait == null || wait <= 0 ? 0 : Math.max(wait / 1000, 1);
+        } catch (RuntimeException e) {
+            log.warn("Redis 限流不可用，放行请求: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
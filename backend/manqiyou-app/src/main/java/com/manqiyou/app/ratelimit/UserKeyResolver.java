@@ -0,0 +1,41 @@
+package com.manqiyou.app.ratelimit;
+
+import com.manqiyou.common.security.util.JwtUtil;
+import com.manqiyou.common.security.util.TokenInfo;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * 限流用户维度解析
+ * 只认签名和有效期都校验通过的 Bearer JWT，取其中的 userId（没有时取 sub）；
+ * 未携带或无效的 Token 返回 null，由调用方退化为按 IP 限流，
+ * 避免客户端每次换一个 Authorization 头就得到一个新的令牌桶。
+ * 校验走 JwtUtil 的已验证 Token 缓存，同一 Token 的后续请求不再验签
+ */
+@Component
+public class UserKeyResolver {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+
+    public UserKeyResolver(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * 已验证的用户 ID，无法确认身份时返回 null
+     */
+    public String userId(HttpServletRequest request) {
+        String auth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (auth == null || !auth.startsWith(BEARER)) {
+            return null;
+        }
+        TokenInfo info = jwtUtil.verify(auth.substring(BEARER.length()).trim());
+        if (info == null) {
+            return null;
+        }
+        return info.getUserId() != null ? info.getUserId() : info.getClaims().getSubject();
+    }
+}
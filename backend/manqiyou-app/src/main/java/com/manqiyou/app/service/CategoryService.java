@@ -1,24 +1,68 @@
 package com.manqiyou.app.service;
 
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.manqiyou.app.entity.Category;
+import com.manqiyou.app.event.CategoryChangedEvent;
 import com.manqiyou.app.mapper.CategoryMapper;
+import com.manqiyou.common.core.snapshot.ReferenceDataSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 分类服务
+ * 分类表很小且很少变更，读取走内存快照，不访问数据库
  */
 @Service
-public class CategoryService extends ServiceImpl<CategoryMapper, Category> {
+public class CategoryService extends ChangeTrackingService<CategoryMapper, Category> {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataSnapshot<Long, Category> categories;
+
+    public CategoryService(ApplicationEventPublisher eventPublisher,
+                           @Value("${manqiyou.reference-data.refresh-seconds:300}") long refreshSeconds) {
+        this.eventPublisher = eventPublisher;
+        this.categories = new ReferenceDataSnapshot<>("category",
+            () -> lambdaQuery().list(),
+            Category::getId,
+            Comparator.comparing(Category::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Category::getId));
+        // 定时刷新发现服务之外的写入时同样发布变更事件
+        this.categories.refreshEvery(refreshSeconds, TimeUnit.SECONDS,
+            () -> eventPublisher.publishEvent(new CategoryChangedEvent(null)));
+    }
 
     /**
      * 获取所有分类
      */
     public List<Category> getAllCategories() {
-        return lambdaQuery()
-            .orderByAsc(Category::getSortOrder)
-            .list();
+        return categories.all();
+    }
+
+    /**
+     * 获取分类详情，不存在时返回 null
+     */
+    public Category getCategory(Long id) {
+        return categories.get(id);
+    }
+
+    @Override
+    protected Long idOf(Category entity) {
+        return entity.getId();
+    }
+
+    @Override
+    protected void onEntityChanged(Long id) {
+        categories.reload();
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+    }
+
+    @PreDestroy
+    public void close() {
+        categories.close();
     }
 }
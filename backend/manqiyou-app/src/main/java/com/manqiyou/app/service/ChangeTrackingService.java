@@ -0,0 +1,156 @@
+package com.manqiyou.app.service;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 感知数据变更的 Service 基类
+ * 覆盖 ServiceImpl 的全部写方法，写入后回调 onEntityChanged，供子类失效缓存、发布变更事件。
+ * 能定位到单条记录时传入其 id，批量或条件写入传入 null。
+ * 在事务中写入时回调推迟到事务提交之后（回滚则不回调），避免提交前失效的缓存被其他请求用旧数据重新填充；
+ * 没有事务时写入后立即回调。
+ */
+public abstract class ChangeTrackingService<M extends BaseMapper<T>, T> extends ServiceImpl<M, T> {
+
+    /**
+     * 实体主键
+     */
+    protected abstract Long idOf(T entity);
+
+    /**
+     * 数据变更回调，id 为 null 表示无法定位到单条记录
+     */
+    protected abstract void onEntityChanged(Long id);
+
+    @Override
+    public boolean save(T entity) {
+        boolean result = super.save(entity);
+        changed(idOf(entity));
+        return result;
+    }
+
+    @Override
+    public boolean saveBatch(Collection<T> entityList, int batchSize) {
+        boolean result = super.saveBatch(entityList, batchSize);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean saveOrUpdate(T entity) {
+        boolean result = super.saveOrUpdate(entity);
+        changed(idOf(entity));
+        return result;
+    }
+
+    @Override
+    public boolean saveOrUpdateBatch(Collection<T> entityList, int batchSize) {
+        boolean result = super.saveOrUpdateBatch(entityList, batchSize);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean updateById(T entity) {
+        boolean result = super.updateById(entity);
+        changed(idOf(entity));
+        return result;
+    }
+
+    @Override
+    public boolean update(T entity, Wrapper<T> updateWrapper) {
+        boolean result = super.update(entity, updateWrapper);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean updateBatchById(Collection<T> entityList, int batchSize) {
+        boolean result = super.updateBatchById(entityList, batchSize);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        changed(toId(id));
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id, boolean useFill) {
+        boolean result = super.removeById(id, useFill);
+        changed(toId(id));
+        return result;
+    }
+
+    @Override
+    public boolean removeById(T entity) {
+        boolean result = super.removeById(entity);
+        changed(idOf(entity));
+        return result;
+    }
+
+    @Override
+    public boolean removeByIds(Collection<?> list) {
+        boolean result = super.removeByIds(list);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean removeByIds(Collection<?> list, boolean useFill) {
+        boolean result = super.removeByIds(list, useFill);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean removeBatchByIds(Collection<?> list, int batchSize, boolean useFill) {
+        boolean result = super.removeBatchByIds(list, batchSize, useFill);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean removeByMap(Map<String, Object> columnMap) {
+        boolean result = super.removeByMap(columnMap);
+        changed(null);
+        return result;
+    }
+
+    @Override
+    public boolean remove(Wrapper<T> queryWrapper) {
+        boolean result = super.remove(queryWrapper);
+        changed(null);
+        return result;
+    }
+
+    private void changed(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onEntityChanged(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                onEntityChanged(id);
+            }
+        });
+    }
+
+    private Long toId(Serializable id) {
+        if (id instanceof Number number) {
+            return number.longValue();
+        }
+        return id == null ? null : Long.valueOf(id.toString());
+    }
+}
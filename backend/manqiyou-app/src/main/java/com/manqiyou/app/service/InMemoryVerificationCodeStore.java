@@ -0,0 +1,147 @@
+package com.manqiyou.app.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程内验证码存储（单节点）
+ * 读取时惰性过期，后台线程定期清理过期项；条目数有上限，达到上限时拒绝新手机号。
+ * 验证成功或错误次数超限后验证码失效，但重发间隔仍然有效
+ */
+@Component
+@ConditionalOnProperty(name = "manqiyou.auth.code.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long resendIntervalMillis;
+    private final int maxAttempts;
+    private final int maxEntries;
+    private final ScheduledExecutorService sweeper;
+
+    public InMemoryVerificationCodeStore(
+            @Value("${manqiyou.auth.code.ttl-seconds:300}") long ttlSeconds,
+            @Value("${manqiyou.auth.code.resend-interval-seconds:60}") long resendIntervalSeconds,
+            @Value("${manqiyou.auth.code.max-attempts:5}") int maxAttempts,
+            @Value("${manqiyou.auth.code.max-entries:100000}") int maxEntries) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.resendIntervalMillis = resendIntervalSeconds * 1000;
+        this.maxAttempts = maxAttempts;
+        this.maxEntries = maxEntries;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "verification-code-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(resendIntervalMillis, 1000);
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SaveResult save(String phone, String code) {
+        long now = System.currentTimeMillis();
+        SaveResult[] result = {SaveResult.SAVED};
+        entries.compute(phone, (key, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                if (now - existing.sentAt < resendIntervalMillis) {
+                    result[0] = SaveResult.TOO_FREQUENT;
+                    return existing;
+                }
+            } else if (entries.size() >= maxEntries) {
+                result[0] = SaveResult.CAPACITY_EXCEEDED;
+                return existing != null && !existing.isExpired(now) ? existing : null;
+            }
+            return new Entry(code, now, now + ttlMillis);
+        });
+        return result[0];
+    }
+
+    @Override
+    public VerifyResult verify(String phone, String code) {
+        long now = System.currentTimeMillis();
+        VerifyResult[] result = {VerifyResult.NOT_FOUND};
+        entries.computeIfPresent(phone, (key, existing) -> {
+            if (existing.isExpired(now)) {
+                return null;
+            }
+            if (existing.code == null) {
+                return existing;
+            }
+            if (code != null && MessageDigest.isEqual(
+                    existing.code.getBytes(StandardCharsets.UTF_8), code.getBytes(StandardCharsets.UTF_8))) {
+                result[0] = VerifyResult.SUCCESS;
+                return tombstone(existing, now);
+            }
+            existing.attempts++;
+            if (existing.attempts >= maxAttempts) {
+                result[0] = VerifyResult.TOO_MANY_ATTEMPTS;
+                return tombstone(existing, now);
+            }
+            result[0] = VerifyResult.MISMATCH;
+            return existing;
+        });
+        return result[0];
+    }
+
+    /**
+     * 验证码用完或失效后保留不含验证码的占位项，直到重发间隔结束，
+     * 与 Redis 实现中独立的 cooldown 键一致，防止借此绕过重发限制
+     */
+    private Entry tombstone(Entry entry, long now) {
+        long cooldownEnd = entry.sentAt + resendIntervalMillis;
+        return cooldownEnd > now ? new Entry(null, entry.sentAt, cooldownEnd) : null;
+    }
+
+    /**
+     * 当前条目数（含尚未清理的过期项）
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清理过期项
+     */
+    void sweep() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * 仅在 ConcurrentHashMap.compute 内修改，由其桶锁保护
+     */
+    private static final class Entry {
+        /**
+         * 为 null 表示占位项，只用于重发间隔判断
+         */
+        private final String code;
+        private final long sentAt;
+        private final long expireAt;
+        private int attempts;
+
+        private Entry(String code, long sentAt, long expireAt) {
+            this.code = code;
+            this.sentAt = sentAt;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expireAt <= now;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.manqiyou.app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Redis 验证码存储（多节点共享）
+ * 验证码、重发冷却、失败次数分别存为带过期时间的 key，过期由 Redis 负责
+ */
+@Component
+@ConditionalOnProperty(name = "manqiyou.auth.code.store", havingValue = "redis")
+public class RedisVerificationCodeStore implements VerificationCodeStore {
+
+    private static final String CODE_KEY = "auth:code:";
+    private static final String COOLDOWN_KEY = "auth:code:cooldown:";
+    private static final String ATTEMPTS_KEY = "auth:code:attempts:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Duration resendInterval;
+    private final int maxAttempts;
+
+    public RedisVerificationCodeStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${manqiyou.auth.code.ttl-seconds:300}") long ttlSeconds,
+            @Value("${manqiyou.auth.code.resend-interval-seconds:60}") long resendIntervalSeconds,
+            @Value("${manqiyou.auth.code.max-attempts:5}") int maxAttempts) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.resendInterval = Duration.ofSeconds(resendIntervalSeconds);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public SaveResult save(String phone, String code) {
+        Boolean first = redisTemplate.opsForValue().setIfAbsent(COOLDOWN_KEY + phone, "1", resendInterval);
+        if (!Boolean.TRUE.equals(first)) {
+            return SaveResult.TOO_FREQUENT;
+        }
+        redisTemplate.opsForValue().set(CODE_KEY + phone, code, ttl);
+        redisTemplate.delete(ATTEMPTS_KEY + phone);
+        return SaveResult.SAVED;
+    }
+
+    @Override
+    public VerifyResult verify(String phone, String code) {
+        String codeKey = CODE_KEY + phone;
+        String stored = redisTemplate.opsForValue().get(codeKey);
+        if (stored == null) {
+            return VerifyResult.NOT_FOUND;
+        }
+        if (code != null && MessageDigest.isEqual(
+                stored.getBytes(StandardCharsets.UTF_8), code.getBytes(StandardCharsets.UTF_8))) {
+            // 删除成功的请求才算通过，防止并发请求重复使用同一验证码
+            return Boolean.TRUE.equals(redisTemplate.delete(codeKey)) ? VerifyResult.SUCCESS : VerifyResult.NOT_FOUND;
+        }
+        String attemptsKey = ATTEMPTS_KEY + phone;
+        Long attempts = redisTemplate.opsForValue().increment(attemptsKey);
+        if (attempts != null && attempts == 1) {
+            redisTemplate.expire(attemptsKey, ttl);
+        }
+        if (attempts != null && attempts >= maxAttempts) {
+            redisTemplate.delete(codeKey);
+            redisTemplate.delete(attemptsKey);
+            return VerifyResult.TOO_MANY_ATTEMPTS;
+        }
+        return VerifyResult.MISMATCH;
+    }
+}
@@ -1,58 +1,272 @@
 package com.manqiyou.app.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
-import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.manqiyou.app.common.LocalCache;
+import com.manqiyou.app.dto.RouteBatchResult;
+import com.manqiyou.app.dto.RouteFacets;
+import com.manqiyou.app.dto.RouteQuery;
+import com.manqiyou.app.dto.RouteSearchHit;
+import com.manqiyou.app.dto.RouteSort;
+import com.manqiyou.app.dto.RouteSummary;
 import com.manqiyou.app.entity.Route;
+import com.manqiyou.app.event.RouteChangedEvent;
+import com.manqiyou.app.index.RouteIndex;
+import com.manqiyou.app.index.RouteSearchIndex;
 import com.manqiyou.app.mapper.RouteMapper;
+import com.manqiyou.common.core.result.CursorPageResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 线路服务
  */
 @Service
-public class RouteService extends ServiceImpl<RouteMapper, Route> {
+public class RouteService extends ChangeTrackingService<RouteMapper, Route> {
+
+    /**
+     * 热门线路缓存（按 limit 缓存）
+     */
+    private final LocalCache<Integer, List<RouteSummary>> featuredCache;
+
+    /**
+     * 线路详情缓存（按 id 缓存）
+     */
+    private final LocalCache<Long, Route> detailCache;
+
+    private final RouteIndex routeIndex;
+    private final RouteSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RouteService(
+            RouteIndex routeIndex,
+            RouteSearchIndex searchIndex,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${manqiyou.cache.route.max-size:1000}") int maxSize,
+            @Value("${manqiyou.cache.route.ttl-seconds:300}") long ttlSeconds) {
+        this.routeIndex = routeIndex;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.featuredCache = new LocalCache<>("route-featured", 64, ttlSeconds * 1000);
+        this.detailCache = new LocalCache<>("route-detail", maxSize, ttlSeconds * 1000);
+    }
 
     /**
      * 获取热门线路
      */
-    public List<Route> getFeaturedRoutes(int limit) {
-        return lambdaQuery()
+    public List<RouteSummary> getFeaturedRoutes(int limit) {
+        if (routeIndex.isReady()) {
+            return routeIndex.featured(limit);
+        }
+        return featuredCache.get(limit, key -> lambdaQuery()
+            .select(true, RouteSummary.COLUMNS)
             .eq(Route::getStatus, 1)
             .eq(Route::getFeatured, true)
             .orderByAsc(Route::getSortOrder)
-            .last("LIMIT " + limit)
-            .list();
+            .orderByAsc(Route::getId)
+            .last("LIMIT " + key)
+            .list()
+            .stream()
+            .map(RouteSummary::from)
+            .toList());
     }
 
     /**
      * 分页查询线路
      */
-    public Page<Route> getRoutes(int page, int size, Long categoryId, String difficulty) {
+    public IPage<RouteSummary> getRoutes(int page, int size, RouteQuery query) {
+        if (routeIndex.isReady()) {
+            return routeIndex.query(page, size, query);
+        }
+        LambdaQueryWrapper<Route> wrapper = filterQuery(query);
+        
+        wrapper.last(orderBy(query.sortKey(), query.descending()));
+        
+        return page(new Page<>(page, size), wrapper).convert(RouteSummary::from);
+    }
+
+    /**
+     * 游标分页查询线路
+     * 按 (sort_order, id) 定位到上一页末尾直接向后扫描，不执行 COUNT 和 OFFSET，
+     * 翻页耗时与页码无关。cursor 为空时返回第一页。
+     */
+    public CursorPageResult<RouteSummary> getRoutesByCursor(String cursor, int size, RouteQuery query) {
+        long[] position = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+        List<RouteSummary> records;
+        if (routeIndex.isReady()) {
+            // 多取一条用于判断是否还有下一页
+            records = position == null
+                ? routeIndex.seek(null, null, size + 1, query)
+                : routeIndex.seek((int) position[0], position[1], size + 1, query);
+        } else {
+            LambdaQueryWrapper<Route> wrapper = filterQuery(query);
+            
+            if (position != null) {
+                wrapper.apply("(sort_order, id) > ({0}, {1})", (int) position[0], position[1]);
+            }
+            
+            wrapper.orderByAsc(Route::getSortOrder).orderByAsc(Route::getId);
+            // 多取一条用于判断是否还有下一页
+            wrapper.last("LIMIT " + (size + 1));
+            
+            records = list(wrapper).stream().map(RouteSummary::from).toList();
+        }
+        String nextCursor = null;
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            RouteSummary last = records.get(size - 1);
+            nextCursor = encodeCursor(last.getSortOrder(), last.getId());
+        }
+        return CursorPageResult.of(records, size, nextCursor);
+    }
+
+    /**
+     * 列表排序，与 RouteIndex 的规则一致：先按排序字段，取值相同的按 (sort_order, id) 升序；
+     * 未填写的取值视为最大，升序排最后、降序排最前（显式指定，H2 默认把 NULL 排在最前）
+     */
+    private static String orderBy(RouteSort sort, boolean descending) {
+        String direction = descending ? "DESC" : "ASC";
+        if (sort == RouteSort.DEFAULT) {
+            return "ORDER BY sort_order " + direction + ", id ASC";
+        }
+        return "ORDER BY " + sort.getColumn() + " " + direction + (descending ? " NULLS FIRST" : " NULLS LAST")
+            + ", sort_order ASC, id ASC";
+    }
+
+    /**
+     * 已上架线路的筛选条件（摘要字段）
+     */
+    private LambdaQueryWrapper<Route> filterQuery(RouteQuery query) {
         LambdaQueryWrapper<Route> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(true, RouteSummary.COLUMNS);
         wrapper.eq(Route::getStatus, 1);
-        
-        if (categoryId != null) {
-            wrapper.eq(Route::getCategoryId, categoryId);
+        wrapper.eq(query.getCategoryId() != null, Route::getCategoryId, query.getCategoryId());
+        wrapper.eq(query.getDifficulty() != null && !query.getDifficulty().isEmpty(),
+            Route::getDifficulty, query.getDifficulty());
+        wrapper.ge(query.getPriceMin() != null, Route::getPrice, query.getPriceMin());
+        wrapper.le(query.getPriceMax() != null, Route::getPrice, query.getPriceMax());
+        wrapper.ge(query.getDistanceMin() != null, Route::getDistance, query.getDistanceMin());
+        wrapper.le(query.getDistanceMax() != null, Route::getDistance, query.getDistanceMax());
+        wrapper.ge(query.getDurationMin() != null, Route::getDuration, query.getDurationMin());
+        wrapper.le(query.getDurationMax() != null, Route::getDuration, query.getDurationMax());
+        return wrapper;
+    }
+
+    /**
+     * 筛选项计数，索引不可用时返回 null
+     */
+    public RouteFacets getRouteFacets(Long categoryId, String difficulty) {
+        if (!routeIndex.isReady()) {
+            return null;
         }
-        if (difficulty != null && !difficulty.isEmpty()) {
-            wrapper.eq(Route::getDifficulty, difficulty);
+        return routeIndex.facets(categoryId, difficulty);
+    }
+
+    /**
+     * 全文检索线路，索引不可用时返回 null
+     */
+    public List<RouteSearchHit> searchRoutes(String query, int limit) {
+        if (!searchIndex.isReady()) {
+            return null;
         }
-        
-        wrapper.orderByAsc(Route::getSortOrder);
-        
-        return page(new Page<>(page, size), wrapper);
+        return searchIndex.search(query, limit);
     }
 
     /**
      * 获取线路详情
      */
     public Route getRouteDetail(Long id) {
-        return lambdaQuery()
-            .eq(Route::getId, id)
+        return detailCache.get(id, key -> lambdaQuery()
+            .eq(Route::getId, key)
+            .eq(Route::getStatus, 1)
+            .one());
+    }
+
+    /**
+     * 批量获取线路详情
+     * 先查详情缓存，未命中的 id 用一次 IN 查询加载并回填缓存；结果保持请求顺序
+     */
+    public RouteBatchResult getRouteDetails(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Route> found = detailCache.getAll(distinctIds, missing -> lambdaQuery()
+            .in(Route::getId, missing)
             .eq(Route::getStatus, 1)
-            .one();
+            .list()
+            .stream()
+            .collect(Collectors.toMap(Route::getId, Function.identity())));
+
+        List<Route> items = new ArrayList<>(distinctIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Route route = found.get(id);
+            if (route != null) {
+                items.add(route);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new RouteBatchResult(items, missingIds);
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("featured", featuredCache.stats());
+        stats.put("detail", detailCache.stats());
+        return stats;
+    }
+
+    // ==================== 写操作：同步失效缓存 ====================
+
+    @Override
+    protected Long idOf(Route entity) {
+        return entity.getId();
+    }
+
+    /**
+     * 单条线路变更失效该线路详情；批量或条件变更无法精确定位受影响的线路，全部失效。
+     * 热门列表总是整体失效
+     */
+    @Override
+    protected void onEntityChanged(Long id) {
+        if (id == null) {
+            detailCache.invalidateAll();
+        } else {
+            detailCache.invalidate(id);
+        }
+        featuredCache.invalidateAll();
+        eventPublisher.publishEvent(id == null ? RouteChangedEvent.all() : new RouteChangedEvent(id));
+    }
+
+    /**
+     * 游标编码：sort_order:id 的 Base64URL，对客户端不透明
+     */
+    private String encodeCursor(Integer sortOrder, Long id) {
+        String raw = (sortOrder == null ? 0 : sortOrder) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new long[]{Integer.parseInt(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1))};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
     }
 }
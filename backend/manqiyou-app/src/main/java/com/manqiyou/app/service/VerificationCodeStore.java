@@ -0,0 +1,43 @@
+package com.manqiyou.app.service;
+
+/**
+ * 短信验证码存储
+ * 验证码有过期时间，同一手机号有重发间隔，校验失败次数达到上限后验证码作废
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * 保存手机号的验证码（覆盖旧验证码并重置失败次数）
+     */
+    SaveResult save(String phone, String code);
+
+    /**
+     * 校验验证码，成功后验证码作废
+     */
+    VerifyResult verify(String phone, String code);
+
+    enum SaveResult {
+        SAVED,
+        /**
+         * 距上次发送未满重发间隔
+         */
+        TOO_FREQUENT,
+        /**
+         * 存储已满
+         */
+        CAPACITY_EXCEEDED
+    }
+
+    enum VerifyResult {
+        SUCCESS,
+        MISMATCH,
+        /**
+         * 未发送或已过期
+         */
+        NOT_FOUND,
+        /**
+         * 失败次数过多，验证码已作废
+         */
+        TOO_MANY_ATTEMPTS
+    }
+}
@@ -26,7 +26,7 @@ CREATE TABLE IF NOT EXISTS routes (
     max_participants INT DEFAULT 20,
     status INT DEFAULT 1,
     featured BOOLEAN DEFAULT FALSE,
-    sort_order INT DEFAULT 0,
+    sort_order INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     deleted INT DEFAULT 0
@@ -48,3 +48,6 @@ CREATE TABLE IF NOT EXISTS users (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     deleted INT DEFAULT 0
 );
+
+-- 线路列表按 (sort_order, id) 游标分页
+CREATE INDEX IF NOT EXISTS idx_routes_status_sort ON routes (status, sort_order, id);
@@ -0,0 +1,97 @@
+package com.manqiyou.app.index;
+
+import com.manqiyou.app.dto.RouteQuery;
+import com.manqiyou.app.dto.RouteSort;
+import com.manqiyou.app.dto.RouteSummary;
+import com.manqiyou.app.entity.Route;
+import com.manqiyou.app.mapper.RouteMapper;
+import com.manqiyou.app.service.RouteService;
+import com.manqiyou.common.core.result.CursorPageResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 内存索引与数据库查询（索引未就绪时的回退路径）对同一数据给出相同的顺序：
+ * 排序字段相同的按 (sort_order, id) 升序，未填写的取值升序排最后、降序排最前
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "manqiyou.route-index.enabled=false")
+class RouteIndexOrderingTest {
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private RouteMapper routeMapper;
+
+    private static RouteIndex index;
+
+    @BeforeAll
+    static void insertRoutes(@Autowired RouteMapper routeMapper) {
+        // 与示例数据的 sort_order 重复，部分价格、里程、天数、热门未填写
+        for (int i = 0; i < 12; i++) {
+            Route route = new Route();
+            route.setName("排序测试-" + i);
+            route.setCategoryId(1L + i % 2);
+            route.setStatus(1);
+            route.setSortOrder(i % 3);
+            route.setPrice(i % 4 == 0 ? null : BigDecimal.valueOf(1000 + (i % 3) * 500));
+            route.setDistance(i % 5 == 0 ? null : BigDecimal.valueOf(100 + (i % 2) * 50));
+            route.setDuration(i % 3 == 0 ? null : 2 + i % 2);
+            route.setFeatured(i % 4 == 1 ? null : i % 2 == 0);
+            routeMapper.insert(route);
+        }
+        index = new RouteIndex(routeMapper, true);
+        index.rebuildAll();
+    }
+
+    @Test
+    void pagedQueriesMatchDatabaseForEverySort() {
+        for (RouteSort sort : RouteSort.values()) {
+            for (String order : List.of("asc", "desc")) {
+                RouteQuery query = new RouteQuery();
+                query.setSort(sort.name().toLowerCase(Locale.ROOT));
+                query.setOrder(order);
+                List<Long> expected = ids(routeService.getRoutes(1, 1000, query).getRecords());
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, ids(index.query(1, 1000, query).getRecords()), sort + " " + order);
+                // 跨页同样一致
+                assertEquals(ids(routeService.getRoutes(2, 5, query).getRecords()),
+                    ids(index.query(2, 5, query).getRecords()), sort + " " + order + " page 2");
+            }
+        }
+    }
+
+    @Test
+    void cursorPagesMatchDatabase() {
+        RouteQuery query = new RouteQuery();
+        List<Long> fromDatabase = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResult<RouteSummary> page = routeService.getRoutesByCursor(cursor, 4, query);
+            fromDatabase.addAll(ids(page.getItems()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(fromDatabase, ids(index.query(1, 1000, query).getRecords()));
+    }
+
+    @Test
+    void featuredMatchesDatabase() {
+        assertEquals(ids(routeService.getFeaturedRoutes(100)), ids(index.featured(100)));
+    }
+
+    private static List<Long> ids(List<RouteSummary> records) {
+        return records.stream().map(RouteSummary::getId).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.manqiyou.app.index;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.manqiyou.app.entity.Route;
+import com.manqiyou.app.mapper.RouteMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 重叠的加载中先读取的旧结果不会覆盖后读取的新结果
+ */
+class RouteSearchIndexTest {
+
+    private final Map<Long, Route> database = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    /**
+     * 下一次读取取完数据后先通知 paused，再等待 resume 才返回
+     */
+    private volatile CountDownLatch paused;
+    private volatile CountDownLatch resume;
+
+    private final RouteSearchIndex index = new RouteSearchIndex(mapper());
+
+    @BeforeAll
+    static void initTableInfo() {
+        // LambdaQueryWrapper 按实体的表信息解析列名
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Route.class);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void staleRefreshIsDiscarded() throws Exception {
+        database.put(1L, route(1L, "alpine"));
+        index.rebuildAll();
+
+        database.put(1L, route(1L, "glacier"));
+        Future<?> slow = startPausedLoad(() -> index.refresh(1L));
+        database.put(1L, route(1L, "desert"));
+        index.refresh(1L);
+        resume.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, index.search("desert", 10).size());
+        assertTrue(index.search("glacier", 10).isEmpty());
+    }
+
+    @Test
+    void staleRebuildDoesNotOverwriteNewerRefresh() throws Exception {
+        database.put(1L, route(1L, "alpine"));
+        database.put(2L, route(2L, "canyon"));
+        index.rebuildAll();
+
+        database.put(2L, route(2L, "glacier"));
+        Future<?> slow = startPausedLoad(index::rebuildAll);
+        database.put(1L, route(1L, "desert"));
+        index.refresh(1L);
+        resume.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, index.search("desert", 10).size());
+        assertTrue(index.search("alpine", 10).isEmpty());
+        assertEquals(1, index.search("glacier", 10).size());
+    }
+
+    private Future<?> startPausedLoad(Runnable load) throws InterruptedException {
+        paused = new CountDownLatch(1);
+        resume = new CountDownLatch(1);
+        Future<?> future = executor.submit(load);
+        assertTrue(paused.await(5, TimeUnit.SECONDS));
+        return future;
+    }
+
+    private static Route route(Long id, String name) {
+        Route route = new Route();
+        route.setId(id);
+        route.setName(name);
+        route.setStatus(1);
+        return route;
+    }
+
+    /**
+     * 按条件中的 Long 参数（线路 id）过滤，没有时返回全部
+     */
+    private RouteMapper mapper() {
+        return (RouteMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{RouteMapper.class},
+            (proxy, method, args) -> {
+                if (!"selectList".equals(method.getName())) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                Long id = ((AbstractWrapper<?, ?, ?>) args[0]).getParamNameValuePairs().values().stream()
+                    .filter(Long.class::isInstance).map(Long.class::cast).findFirst().orElse(null);
+                List<Route> rows = database.values().stream()
+                    .filter(route -> id == null || route.getId().equals(id))
+                    .toList();
+                CountDownLatch pause = paused;
+                if (pause != null && pause.getCount() > 0 && Thread.currentThread().getName().startsWith("pool")) {
+                    pause.countDown();
+                    resume.await();
+                }
+                return rows;
+            });
+    }
+}
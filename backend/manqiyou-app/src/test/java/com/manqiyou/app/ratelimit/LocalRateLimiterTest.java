@@ -0,0 +1,89 @@
+package com.manqiyou.app.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTest {
+
+    private final LocalRateLimiter limiter = new LocalRateLimiter(100);
+
+    @AfterEach
+    void close() {
+        limiter.close();
+    }
+
+    @Test
+    void limitsBurstPerKey() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("a", 5, 1));
+        }
+        assertTrue(limiter.tryAcquire("a", 5, 1) > 0);
+        assertEquals(0, limiter.tryAcquire("b", 5, 1));
+    }
+
+    /**
+     * key 数超过上限后，新 key 仍各自独立限流，不会因共用溢出桶而互相拖累
+     */
+    @Test
+    void keysBeyondCapacityStayIsolated() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("flood-" + i, 5, 1), "flood-" + i);
+        }
+        assertTrue(limiter.size() <= 101, "size " + limiter.size());
+        assertEquals(0, limiter.tryAcquire("late-key", 5, 1));
+    }
+
+    /**
+     * 进程内限流每次调用的耗时：单 key 单线程、随机 key 多线程
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkOverhead() throws InterruptedException {
+        int iterations = 2_000_000;
+        for (int i = 0; i < iterations; i++) {
+            limiter.tryAcquire("hot", Integer.MAX_VALUE, 1e9);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            limiter.tryAcquire("hot", Integer.MAX_VALUE, 1e9);
+        }
+        double single = (double) (System.nanoTime() - start) / iterations;
+
+        int threads = Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        LocalRateLimiter wide = new LocalRateLimiter(100_000);
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "ip:10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        int perThread = iterations / threads;
+        long wideStart = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    wide.tryAcquire(keys[(offset + i) % keys.length], 100, 20);
+                }
+                done.countDown();
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        double multi = (double) (System.nanoTime() - wideStart) * threads / ((long) perThread * threads);
+        wide.close();
+
+        System.out.printf("LocalRateLimiter: %.0f ns/op single key, %.0f ns/op per thread (%d threads, %d keys)%n",
+            single, multi, threads, keys.length);
+    }
+}
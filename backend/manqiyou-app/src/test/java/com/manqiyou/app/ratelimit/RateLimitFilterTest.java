@@ -0,0 +1,176 @@
+package com.manqiyou.app.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manqiyou.common.security.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private static final String SECRET = "test-secret-key-must-be-at-least-256-bits-long-for-hmac";
+
+    private final LocalRateLimiter limiter = new LocalRateLimiter(100_000);
+    private final UserKeyResolver userKeyResolver = new UserKeyResolver(jwtUtil());
+
+    @AfterEach
+    void close() {
+        limiter.close();
+    }
+
+    @Test
+    void clientIpHeaderOnlyHonouredFromTrustedProxy() {
+        RateLimitFilter filter = filter("ip", 1);
+
+        MockHttpServletRequest viaProxy = request("127.0.0.1");
+        viaProxy.addHeader("X-Real-IP", "203.0.113.7");
+        assertEquals("203.0.113.7", filter.clientIp(viaProxy));
+
+        MockHttpServletRequest direct = request("198.51.100.20");
+        direct.addHeader("X-Real-IP", "203.0.113.7");
+        assertEquals("198.51.100.20", filter.clientIp(direct));
+
+        // 同一 docker 网络中的前端 SSR 容器
+        MockHttpServletRequest cidr = request("172.28.0.5");
+        cidr.addHeader("X-Real-IP", "203.0.113.8");
+        assertEquals("203.0.113.8", filter.clientIp(cidr));
+    }
+
+    /**
+     * 后端在容器中运行时，宿主机 nginx 经端口映射转发的连接来自容器网络网关：不同客户端仍各有令牌桶
+     */
+    @Test
+    void clientsBehindDockerBridgeGatewayGetSeparateBuckets() throws Exception {
+        RateLimitFilter filter = filter("ip", 1);
+        assertEquals(200, run(filter, viaGateway("203.0.113.10")));
+        assertEquals(200, run(filter, viaGateway("203.0.113.11")));
+        assertEquals(429, run(filter, viaGateway("203.0.113.10")));
+    }
+
+    @Test
+    void spoofedHeaderFromUntrustedClientDoesNotGetFreshBuckets() throws Exception {
+        RateLimitFilter filter = filter("ip", 1);
+        assertEquals(200, run(filter, spoofed("1.1.1.1")));
+        assertEquals(429, run(filter, spoofed("2.2.2.2")));
+    }
+
+    @Test
+    void userKeyUsesVerifiedUserIdOnly() throws Exception {
+        String token = Jwts.builder().claim("userId", "42")
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).compact();
+        MockHttpServletRequest signed = request("198.51.100.20");
+        signed.addHeader("Authorization", "Bearer " + token);
+        assertEquals("42", userKeyResolver.userId(signed));
+
+        MockHttpServletRequest forged = request("198.51.100.20");
+        forged.addHeader("Authorization", "Bearer not-a-token");
+        assertNull(userKeyResolver.userId(forged));
+
+        // 无效 Token 退化为按 IP 限流：换 Authorization 头不能绕过
+        RateLimitFilter filter = filter("user", 1);
+        MockHttpServletRequest first = request("198.51.100.30");
+        first.addHeader("Authorization", "Bearer random-1");
+        MockHttpServletRequest second = request("198.51.100.30");
+        second.addHeader("Authorization", "Bearer random-2");
+        assertEquals(200, run(filter, first));
+        assertEquals(429, run(filter, second));
+    }
+
+    /**
+     * 过滤器在放行路径上的额外耗时（路径匹配 + 取 key + 令牌桶），不含后续过滤器链
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkFilterOverhead() throws Exception {
+        RateLimitFilter filter = filter("ip", Integer.MAX_VALUE);
+        int clients = 10_000;
+        MockHttpServletRequest[] requests = new MockHttpServletRequest[clients];
+        for (int i = 0; i < clients; i++) {
+            requests[i] = request("127.0.0.1");
+            requests[i].addHeader("X-Real-IP", "203.0." + (i >> 8) + "." + (i & 0xff));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int iterations = 1_000_000;
+        for (int i = 0; i < iterations; i++) {
+            filter.doFilter(requests[i % clients], response, new MockFilterChain());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            filter.doFilter(requests[i % clients], response, new MockFilterChain());
+        }
+        double nanos = (double) (System.nanoTime() - start) / iterations;
+        RateLimitFilter off = filter("ip", Integer.MAX_VALUE, false);
+        for (int i = 0; i < iterations; i++) {
+            off.doFilter(requests[i % clients], response, new MockFilterChain());
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            off.doFilter(requests[i % clients], response, new MockFilterChain());
+        }
+        double baseline = (double) (System.nanoTime() - start) / iterations;
+        System.out.printf("RateLimitFilter: %.0f ns/request enabled, %.0f ns/request disabled (%d client IPs)%n",
+            nanos, baseline, clients);
+    }
+
+    private static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 1000);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private RateLimitFilter filter(String key, int capacity) {
+        return filter(key, capacity, true);
+    }
+
+    private RateLimitFilter filter(String key, int capacity, boolean enabled) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(enabled);
+        properties.setClientIpHeader("X-Real-IP");
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName("routes");
+        policy.setPath("/api/routes/**");
+        policy.setKey(key);
+        policy.setCapacity(capacity);
+        policy.setRefillPerSecond(capacity == Integer.MAX_VALUE ? 1e9 : 0.001);
+        properties.setPolicies(List.of(policy));
+        return new RateLimitFilter(limiter, properties, new ObjectMapper(), userKeyResolver);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/routes/1");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletRequest viaGateway(String clientIp) {
+        MockHttpServletRequest request = request("172.28.0.1");
+        request.addHeader("X-Real-IP", clientIp);
+        return request;
+    }
+
+    private static MockHttpServletRequest spoofed(String claimedIp) {
+        MockHttpServletRequest request = request("198.51.100.40");
+        request.addHeader("X-Real-IP", claimedIp);
+        return request;
+    }
+
+    private static int run(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,86 @@
+package com.manqiyou.app.service;
+
+import com.manqiyou.app.entity.Category;
+import com.manqiyou.app.mapper.CategoryMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 事务中的写入在提交后才回调，回滚时不回调；没有事务时立即回调
+ */
+class ChangeTrackingServiceTest {
+
+    private final RecordingService service = new RecordingService();
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void notifiesImmediatelyWithoutTransaction() {
+        service.updateById(category(1L));
+        assertEquals(List.of(1L), service.changed);
+    }
+
+    @Test
+    void notifiesAfterCommitOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.updateById(category(1L));
+        service.updateById(category(2L));
+        assertTrue(service.changed.isEmpty());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(1L, 2L), service.changed);
+    }
+
+    @Test
+    void rollbackDoesNotNotify() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.updateById(category(1L));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertTrue(service.changed.isEmpty());
+    }
+
+    private static Category category(Long id) {
+        Category category = new Category();
+        category.setId(id);
+        return category;
+    }
+
+    /**
+     * 写入总是成功的 Mapper，记录回调的 id
+     */
+    private static class RecordingService extends ChangeTrackingService<CategoryMapper, Category> {
+        final List<Long> changed = new ArrayList<>();
+
+        RecordingService() {
+            ReflectionTestUtils.setField(this, "baseMapper", Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{CategoryMapper.class}, (proxy, method, args) -> 1));
+        }
+
+        @Override
+        protected Long idOf(Category entity) {
+            return entity.getId();
+        }
+
+        @Override
+        protected void onEntityChanged(Long id) {
+            changed.add(id);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.manqiyou.app.service;
+
+import com.manqiyou.app.service.VerificationCodeStore.SaveResult;
+import com.manqiyou.app.service.VerificationCodeStore.VerifyResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryVerificationCodeStoreTest {
+
+    private static final String PHONE = "13800000000";
+
+    private final InMemoryVerificationCodeStore store = new InMemoryVerificationCodeStore(300, 60, 3, 100);
+
+    @AfterEach
+    void close() {
+        store.close();
+    }
+
+    @Test
+    void tooManyAttemptsKeepsResendCooldown() {
+        assertEquals(SaveResult.SAVED, store.save(PHONE, "123456"));
+        assertEquals(VerifyResult.MISMATCH, store.verify(PHONE, "000000"));
+        assertEquals(VerifyResult.MISMATCH, store.verify(PHONE, "000000"));
+        assertEquals(VerifyResult.TOO_MANY_ATTEMPTS, store.verify(PHONE, "000000"));
+
+        assertEquals(VerifyResult.NOT_FOUND, store.verify(PHONE, "123456"));
+        assertEquals(SaveResult.TOO_FREQUENT, store.save(PHONE, "654321"));
+    }
+
+    @Test
+    void successfulVerifyKeepsResendCooldown() {
+        assertEquals(SaveResult.SAVED, store.save(PHONE, "123456"));
+        assertEquals(VerifyResult.SUCCESS, store.verify(PHONE, "123456"));
+
+        assertEquals(VerifyResult.NOT_FOUND, store.verify(PHONE, "123456"));
+        assertEquals(SaveResult.TOO_FREQUENT, store.save(PHONE, "654321"));
+    }
+}
@@ -1,7 +1,7 @@
 package com.manqiyou.cms.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
-import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.manqiyou.common.core.mybatis.ImageListTypeHandler;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -30,7 +30,7 @@ public class Content {
 
     private String contentEn;
 
-    @TableField(typeHandler = JacksonTypeHandler.class)
+    @TableField(typeHandler = ImageListTypeHandler.class)
     private List<String> images;
 
     private Boolean isActive;
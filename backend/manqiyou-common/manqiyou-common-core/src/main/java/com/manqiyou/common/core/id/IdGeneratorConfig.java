@@ -0,0 +1,72 @@
+package com.manqiyou.common.core.id;
+
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+
+/**
+ * ID生成配置
+ * 节点ID优先取 manqiyou.id.worker-id，其次由 WorkerIdAssigner 分配，
+ * 都没有时按主机名和进程号散列（可能冲突，多实例部署应显式配置）
+ */
+@Slf4j
+@Configuration
+public class IdGeneratorConfig {
+
+    @Value("${manqiyou.id.worker-id:-1}")
+    private long workerId;
+
+    @Value("${manqiyou.id.max-backward-millis:5000}")
+    private long maxBackwardMillis;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SnowflakeIdGenerator snowflakeIdGenerator(ObjectProvider<WorkerIdAssigner> assigner) {
+        if (workerId < 0) {
+            WorkerIdAssigner available = assigner.getIfAvailable();
+            if (available != null) {
+                SnowflakeIdGenerator generator = new SnowflakeIdGenerator(available, maxBackwardMillis);
+                log.info("Snowflake 节点ID: {}（租约）", generator.getWorkerId());
+                return generator;
+            }
+        }
+        long id = workerId >= 0 ? workerId : hashedWorkerId();
+        log.info("Snowflake 节点ID: {}", id);
+        return new SnowflakeIdGenerator(id, maxBackwardMillis);
+    }
+
+    private static long hashedWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        long id = (identity.hashCode() & Integer.MAX_VALUE) % (SnowflakeIdGenerator.MAX_WORKER_ID + 1);
+        log.warn("未配置 manqiyou.id.worker-id，按 {} 散列得到节点ID {}，多实例部署时可能冲突", identity, id);
+        return id;
+    }
+
+    /**
+     * 注册为 MyBatis-Plus 主键生成器
+     */
+    @Configuration
+    @ConditionalOnClass(name = "com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator")
+    static class MybatisIdentifierGeneratorConfig {
+
+        @Bean
+        @ConditionalOnMissingBean(IdentifierGenerator.class)
+        public IdentifierGenerator identifierGenerator(SnowflakeIdGenerator snowflakeIdGenerator) {
+            return new SnowflakeIdentifierGenerator(snowflakeIdGenerator);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.manqiyou.common.core.id;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间有序的64位ID生成器（Snowflake）
+ * 结构：1位符号 + 41位毫秒时间戳（自2024-01-01起，约69年）+ 10位节点ID + 12位序列号。
+ * 时间戳与序列号放在同一个原子变量中，CAS 更新，无锁；同一毫秒序列号用完时借用下一毫秒。
+ * 时钟回拨时沿用上次的时间戳继续递增，保证单节点ID单调，回拨超过 maxBackwardMillis 时拒绝生成。
+ * 节点ID来自租约（WorkerIdAssigner）时每次生成前确认租约，租约失效期间拒绝生成。
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 起始时间 2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH = 1704067200000L;
+
+    public static final int WORKER_ID_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+
+    private static final DateTimeFormatter ORDER_NO_TIME = DateTimeFormatter.ofPattern("yyMMddHHmmssSSS");
+    private static final ZoneId ORDER_NO_ZONE = ZoneId.of("Asia/Shanghai");
+
+    private final long workerId;
+    private final WorkerIdAssigner lease;
+    private final long maxBackwardMillis;
+
+    /**
+     * 上次生成的 (时间戳 << SEQUENCE_BITS) | 序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, 5000);
+    }
+
+    /**
+     * @param workerId          节点ID，0-1023，同一时间各节点不能重复
+     * @param maxBackwardMillis 允许的最大时钟回拨（毫秒）
+     */
+    public SnowflakeIdGenerator(long workerId, long maxBackwardMillis) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId 取值范围为 0-" + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.workerId = workerId;
+        this.lease = null;
+        this.maxBackwardMillis = maxBackwardMillis;
+    }
+
+    /**
+     * 节点ID由租约分配，租约丢失并重新获取后使用新的节点ID
+     */
+    public SnowflakeIdGenerator(WorkerIdAssigner lease, long maxBackwardMillis) {
+        this.workerId = lease.assign();
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId 取值范围为 0-" + MAX_WORKER_ID + ": " + workerId);
+        }
+        this.lease = lease;
+        this.maxBackwardMillis = maxBackwardMillis;
+    }
+
+    public long getWorkerId() {
+        return lease != null ? lease.current() : workerId;
+    }
+
+    /**
+     * 生成ID
+     *
+     * @throws IllegalStateException 时钟回拨超过允许范围，或节点ID租约已失效
+     */
+    public long nextId() {
+        long worker = lease != null ? lease.current() : workerId;
+        long next = nextState();
+        return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | (worker << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    private long nextState() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long last = state.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 同一毫秒或时钟回拨：序列号加一，溢出时自然进位到下一毫秒
+                if (lastTimestamp - now > maxBackwardMillis) {
+                    throw new IllegalStateException("时钟回拨 " + (lastTimestamp - now) + "ms，拒绝生成ID");
+                }
+                next = last + 1;
+            }
+            if (state.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 生成订单号：下单时间（yyMMddHHmmssSSS，东八区）+ 4位节点ID + 4位序列号，共23位数字，全局唯一且按时间有序
+     */
+    public String nextOrderNo() {
+        return formatOrderNo(nextId());
+    }
+
+    /**
+     * 由ID得到订单号
+     */
+    public static String formatOrderNo(long id) {
+        long timestamp = (id >>> TIMESTAMP_SHIFT) + EPOCH;
+        long worker = (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+        long sequence = id & SEQUENCE_MASK;
+        return ORDER_NO_TIME.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ORDER_NO_ZONE))
+                + String.format("%04d%04d", worker, sequence);
+    }
+
+    /**
+     * ID中的生成时间（毫秒时间戳）
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+}
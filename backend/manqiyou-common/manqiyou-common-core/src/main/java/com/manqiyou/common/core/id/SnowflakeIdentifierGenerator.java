@@ -0,0 +1,21 @@
+package com.manqiyou.common.core.id;
+
+import com.baomidou.mybatisplus.core.incrementer.IdentifierGenerator;
+
+/**
+ * MyBatis-Plus 主键生成器
+ * IdType.ASSIGN_ID 的主键由 Snowflake 生成；String 类型主键保存为十进制字符串，位数相同时字典序即时间序
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    private final SnowflakeIdGenerator generator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    public Number nextId(Object entity) {
+        return generator.nextId();
+    }
+}
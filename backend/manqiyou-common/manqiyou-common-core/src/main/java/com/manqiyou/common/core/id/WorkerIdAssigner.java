@@ -0,0 +1,21 @@
+package com.manqiyou.common.core.id;
+
+/**
+ * 节点ID分配
+ * 未配置 manqiyou.id.worker-id 时由容器中的实现分配（如基于Redis租约）
+ */
+public interface WorkerIdAssigner {
+
+    /**
+     * 分配一个当前未被其他节点占用的节点ID（0-1023）
+     */
+    long assign();
+
+    /**
+     * 当前持有的节点ID，生成每个ID前调用；租约丢失后返回重新获取的ID，
+     * 无法确认仍持有任何节点ID时抛出异常，生成器随之停止生成
+     *
+     * @throws IllegalStateException 租约已失效
+     */
+    long current();
+}
@@ -0,0 +1,91 @@
+package com.manqiyou.common.core.mybatis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 图片地址列表类型处理器（JSONB / TEXT 列 &lt;-&gt; List&lt;String&gt;）
+ * 使用预先构建的共享 ObjectReader/ObjectWriter，不像 JacksonTypeHandler 每次按字段类型查找反序列化器。
+ * 默认按 JSONB 绑定参数；映射声明 jdbcType = VARCHAR 等文本类型时按字符串绑定。
+ * 历史数据中的逗号分隔字符串同样可以读取，写回时统一为 JSON 数组。
+ */
+@MappedTypes(List.class)
+@MappedJdbcTypes(value = JdbcType.OTHER, includeNullJdbcType = true)
+public class ImageListTypeHandler extends BaseTypeHandler<List<String>> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(new TypeReference<List<String>>() {
+    });
+    private static final ObjectWriter WRITER = MAPPER.writerFor(new TypeReference<List<String>>() {
+    });
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, List<String> parameter, JdbcType jdbcType)
+            throws SQLException {
+        String json;
+        try {
+            json = WRITER.writeValueAsString(parameter);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("图片列表序列化失败", e);
+        }
+        if (jdbcType == JdbcType.VARCHAR || jdbcType == JdbcType.LONGVARCHAR || jdbcType == JdbcType.CLOB) {
+            ps.setString(i, json);
+        } else {
+            ps.setObject(i, json, Types.OTHER);
+        }
+    }
+
+    @Override
+    public List<String> getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return parse(rs.getString(columnName));
+    }
+
+    @Override
+    public List<String> getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return parse(rs.getString(columnIndex));
+    }
+
+    @Override
+    public List<String> getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return parse(cs.getString(columnIndex));
+    }
+
+    /**
+     * 解析 JSON 数组（或历史的逗号分隔字符串）
+     */
+    public static List<String> parse(String text) throws SQLException {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        if (text.strip().startsWith("[")) {
+            try {
+                return READER.readValue(text);
+            } catch (JsonProcessingException e) {
+                throw new SQLException("图片列表解析失败: " + text, e);
+            }
+        }
+        List<String> urls = new ArrayList<>();
+        for (String url : text.split(",")) {
+            if (!url.isBlank()) {
+                urls.add(url.trim());
+            }
+        }
+        return urls.isEmpty() ? Collections.emptyList() : urls;
+    }
+}
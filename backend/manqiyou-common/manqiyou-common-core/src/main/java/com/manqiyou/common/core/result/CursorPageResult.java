@@ -0,0 +1,35 @@
+package com.manqiyou.common.core.result;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果（不统计总数）
+ * nextCursor 为空表示没有下一页
+ */
+@Data
+public class CursorPageResult<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> items;
+    private Integer pageSize;
+    private String nextCursor;
+    private Boolean hasMore;
+
+    public CursorPageResult() {
+    }
+
+    public CursorPageResult(List<T> items, Integer pageSize, String nextCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public static <T> CursorPageResult<T> of(List<T> items, Integer pageSize, String nextCursor) {
+        return new CursorPageResult<>(items, pageSize, nextCursor);
+    }
+}
@@ -0,0 +1,164 @@
+package com.manqiyou.common.core.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 参考数据快照
+ * 适用于很少变更的小表（分类、会员等级等）：整表加载为不可变的有序列表和 id 索引，
+ * 通过原子引用整体替换。读取无锁、不访问数据库；数据变更时调用 reload()，也可按固定周期自动刷新。
+ * 刷新失败时保留上一份快照。
+ */
+public class ReferenceDataSnapshot<K, V> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataSnapshot.class);
+
+    private final String name;
+    private final Supplier<List<V>> loader;
+    private final Function<V, K> idExtractor;
+    private final Comparator<? super V> order;
+    private final AtomicReference<Data<K, V>> current = new AtomicReference<>();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param name        名称，用于日志
+     * @param loader      全量加载函数
+     * @param idExtractor 主键提取函数
+     * @param order       列表排序，为 null 时保持加载顺序
+     */
+    public ReferenceDataSnapshot(String name, Supplier<List<V>> loader, Function<V, K> idExtractor,
+                                 Comparator<? super V> order) {
+        this.name = name;
+        this.loader = loader;
+        this.idExtractor = idExtractor;
+        this.order = order;
+    }
+
+    /**
+     * 全部数据（不可修改，已排序）
+     */
+    public List<V> all() {
+        return data().list;
+    }
+
+    /**
+     * 按 id 获取，不存在时返回 null
+     */
+    public V get(K id) {
+        return id == null ? null : data().byId.get(id);
+    }
+
+    /**
+     * 当前快照版本，每次成功加载递增
+     */
+    public long version() {
+        Data<K, V> data = current.get();
+        return data == null ? 0 : data.version;
+    }
+
+    /**
+     * 重新加载并替换快照；加载失败时保留原快照并返回 false
+     */
+    public synchronized boolean reload() {
+        try {
+            List<V> loaded = new ArrayList<>(loader.get());
+            if (order != null) {
+                loaded.sort(order);
+            }
+            Map<K, V> byId = new LinkedHashMap<>();
+            for (V value : loaded) {
+                byId.put(idExtractor.apply(value), value);
+            }
+            Data<K, V> previous = current.get();
+            long version = previous == null ? 1 : previous.version + 1;
+            current.set(new Data<>(Collections.unmodifiableList(loaded), Collections.unmodifiableMap(byId), version));
+            log.debug("参考数据[{}]已加载，共 {} 条", name, loaded.size());
+            return true;
+        } catch (RuntimeException e) {
+            if (current.get() == null) {
+                throw e;
+            }
+            log.warn("参考数据[{}]刷新失败，继续使用旧快照", name, e);
+            return false;
+        }
+    }
+
+    /**
+     * 按固定周期自动刷新（守护线程），重复调用无效
+     */
+    public void refreshEvery(long period, TimeUnit unit) {
+        refreshEvery(period, unit, null);
+    }
+
+    /**
+     * 按固定周期自动刷新（守护线程），重复调用无效。
+     * 刷新得到的数据与上一份不同（按 equals 比较）时回调 onChanged，用于通知依赖方；
+     * 手动 reload() 不回调，由调用方自行通知
+     */
+    public synchronized void refreshEvery(long period, TimeUnit unit, Runnable onChanged) {
+        if (scheduler != null || period <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot-refresh-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> scheduledReload(onChanged), period, period, unit);
+    }
+
+    /**
+     * 定时刷新，异常不向外抛出，避免后续周期被取消
+     */
+    private void scheduledReload(Runnable onChanged) {
+        try {
+            Data<K, V> before = current.get();
+            if (reload() && onChanged != null && before != null && !before.list.equals(current.get().list)) {
+                onChanged.run();
+            }
+        } catch (RuntimeException e) {
+            log.warn("参考数据[{}]定时刷新失败", name, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 首次访问时同步加载
+     */
+    private Data<K, V> data() {
+        Data<K, V> data = current.get();
+        if (data == null) {
+            synchronized (this) {
+                if (current.get() == null) {
+                    reload();
+                }
+            }
+            data = current.get();
+        }
+        return data;
+    }
+
+    private record Data<K, V>(List<V> list, Map<K, V> byId, long version) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.manqiyou.common.core.id;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Snowflake ID 的唯一性、租约失效时的行为，以及与 UUID 主键写入 orders 表的吞吐对比
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final int ROWS = 200_000;
+    private static final int BATCH = 1000;
+
+    @Test
+    void idsAreUniqueAndOrderedAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                long last = 0;
+                for (int i = 0; i < 100_000; i++) {
+                    long id = generator.nextId();
+                    assertTrue(id > last);
+                    last = id;
+                    ids.add(id);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800_000, ids.size());
+        assertEquals(23, generator.nextOrderNo().length());
+    }
+
+    @Test
+    void leasedWorkerIdIsCheckedForEveryId() {
+        AtomicBoolean valid = new AtomicBoolean(true);
+        AtomicLong workerId = new AtomicLong(3);
+        WorkerIdAssigner lease = new WorkerIdAssigner() {
+            @Override
+            public long assign() {
+                return workerId.get();
+            }
+
+            @Override
+            public long current() {
+                if (!valid.get()) {
+                    throw new IllegalStateException("租约已失效");
+                }
+                return workerId.get();
+            }
+        };
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(lease, 5000);
+        assertEquals(3, workerOf(generator.nextId()));
+
+        valid.set(false);
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        workerId.set(9);
+        valid.set(true);
+        assertEquals(9, workerOf(generator.nextId()));
+    }
+
+    /**
+     * H2（PostgreSQL 模式）中按 init.sql 的 orders 表结构插入 20 万行，每批 1000 行，
+     * 分别使用 UUID 和 Snowflake 十进制字符串作主键，输出每秒插入行数
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkOrderInsertThroughput() throws SQLException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        // 预热
+        insertRows("warmup_uuid", 20_000, i -> UUID.randomUUID().toString());
+        insertRows("warmup_snowflake", 20_000, i -> Long.toString(generator.nextId()));
+
+        double uuid = insertRows("uuid", ROWS, i -> UUID.randomUUID().toString());
+        double snowflake = insertRows("snowflake", ROWS, i -> Long.toString(generator.nextId()));
+        System.out.printf("orders insert: %.0f rows/s with Snowflake ids, %.0f rows/s with UUID ids (%d rows, batch %d)%n",
+            snowflake, uuid, ROWS, BATCH);
+    }
+
+    private static double insertRows(String database, int rows, LongFunction<String> ids) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + database + ";MODE=PostgreSQL")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE orders ("
+                    + "id VARCHAR(36) PRIMARY KEY, order_no VARCHAR(50) UNIQUE NOT NULL, user_id VARCHAR(36), "
+                    + "route_id VARCHAR(36), schedule_id VARCHAR(36), participants INTEGER NOT NULL, "
+                    + "total_price DECIMAL(10,2) NOT NULL, status VARCHAR(20) DEFAULT 'pending', "
+                    + "contact_name VARCHAR(50), contact_phone VARCHAR(20), "
+                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+            connection.setAutoCommit(false);
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO orders (id, order_no, user_id, "
+                + "route_id, schedule_id, participants, total_price, contact_name, contact_phone, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    String id = ids.apply(i);
+                    insert.setString(1, id);
+                    insert.setString(2, "NO" + id);
+                    insert.setString(3, "user-" + (i % 5000));
+                    insert.setString(4, "route-" + (i % 200));
+                    insert.setString(5, "schedule-" + (i % 2000));
+                    insert.setInt(6, 1 + i % 4);
+                    insert.setBigDecimal(7, BigDecimal.valueOf(2999));
+                    insert.setString(8, "联系人");
+                    insert.setString(9, "13800000000");
+                    insert.setTimestamp(10, new Timestamp(System.currentTimeMillis()));
+                    insert.addBatch();
+                    if ((i + 1) % BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            try (Statement statement = connection.createStatement()) {
+                var count = statement.executeQuery("SELECT COUNT(*) FROM orders");
+                count.next();
+                assertEquals(rows, count.getInt(1));
+            }
+            return rows / seconds;
+        }
+    }
+
+    private static long workerOf(long id) {
+        return (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID;
+    }
+}
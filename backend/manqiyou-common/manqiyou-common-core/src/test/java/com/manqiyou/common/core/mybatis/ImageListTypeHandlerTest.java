@@ -0,0 +1,144 @@
+package com.manqiyou.common.core.mybatis;
+
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * ImageListTypeHandler 正确性及与 JacksonTypeHandler 的读取耗时对比
+ */
+class ImageListTypeHandlerTest {
+
+    private static final int ROWS = 1000;
+    private static final int ROUNDS = 500;
+
+    /**
+     * 供 JacksonTypeHandler 取得 List&lt;String&gt; 泛型类型
+     */
+    @SuppressWarnings("unused")
+    private List<String> images;
+
+    @Test
+    void parsesJsonArrayAndLegacyCommaSeparated() throws SQLException {
+        assertEquals(List.of("/a.jpg", "/b.jpg"), ImageListTypeHandler.parse("[\"/a.jpg\",\"/b.jpg\"]"));
+        assertEquals(List.of("/a.jpg", "/b.jpg"), ImageListTypeHandler.parse(" /a.jpg, /b.jpg ,"));
+        assertEquals(List.of(), ImageListTypeHandler.parse("[]"));
+        assertNull(ImageListTypeHandler.parse(null));
+        assertNull(ImageListTypeHandler.parse("  "));
+    }
+
+    @Test
+    void bindsTextOrJsonbByJdbcType() throws SQLException {
+        ImageListTypeHandler handler = new ImageListTypeHandler();
+        AtomicReference<Object> bound = new AtomicReference<>();
+        AtomicReference<Integer> sqlType = new AtomicReference<>();
+        PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setString" -> {
+                        bound.set(args[1]);
+                        sqlType.set(Types.VARCHAR);
+                    }
+                    case "setObject" -> {
+                        bound.set(args[1]);
+                        sqlType.set((Integer) args[2]);
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+                return null;
+            });
+
+        handler.setNonNullParameter(ps, 1, List.of("/a.jpg"), JdbcType.VARCHAR);
+        assertEquals("[\"/a.jpg\"]", bound.get());
+        assertEquals(Types.VARCHAR, sqlType.get());
+
+        handler.setNonNullParameter(ps, 1, List.of("/a.jpg"), null);
+        assertEquals("[\"/a.jpg\"]", bound.get());
+        assertEquals(Types.OTHER, sqlType.get());
+    }
+
+    /**
+     * 1000 行、每行 5 张图片的读取耗时，输出每行平均纳秒数
+     */
+    @Test
+    @Tag("benchmark")
+    @SuppressWarnings("unchecked")
+    void benchmarkAgainstJacksonTypeHandler() throws Exception {
+        String[] rows = new String[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < 5; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("\"/brand_assets/routes/page").append((row + i) % 40).append("_img").append(i).append(".jpeg\"");
+            }
+            rows[row] = json.append(']').toString();
+        }
+        ResultSet rs = resultSet(rows);
+        ImageListTypeHandler imageList = new ImageListTypeHandler();
+        JacksonTypeHandler jackson = new JacksonTypeHandler(List.class, getClass().getDeclaredField("images"));
+
+        for (int round = 0; round < ROUNDS; round++) {
+            readAll(imageList, rs);
+            readAll(jackson, rs);
+        }
+        long imageListNanos = 0;
+        long jacksonNanos = 0;
+        List<List<String>> imageListRows = null;
+        List<List<String>> jacksonRows = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            imageListRows = readAll(imageList, rs);
+            imageListNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            jacksonRows = (List<List<String>>) (List<?>) readAll(jackson, rs);
+            jacksonNanos += System.nanoTime() - start;
+        }
+        assertEquals(jacksonRows, imageListRows);
+
+        System.out.printf("ImageListTypeHandler: %.0f ns/row%n", (double) imageListNanos / ROUNDS / ROWS);
+        System.out.printf("JacksonTypeHandler:   %.0f ns/row%n", (double) jacksonNanos / ROUNDS / ROWS);
+    }
+
+    private static <T> List<T> readAll(BaseTypeHandler<T> handler, ResultSet rs) throws SQLException {
+        rs.beforeFirst();
+        List<T> result = new ArrayList<>(ROWS);
+        while (rs.next()) {
+            result.add(handler.getNullableResult(rs, "images"));
+        }
+        return result;
+    }
+
+    /**
+     * 只支持 beforeFirst / next / getString 的内存结果集
+     */
+    private static ResultSet resultSet(String[] rows) {
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(ImageListTypeHandlerTest.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "beforeFirst" -> {
+                    cursor[0] = -1;
+                    yield null;
+                }
+                case "next" -> ++cursor[0] < rows.length;
+                case "getString" -> rows[cursor[0]];
+                case "wasNull" -> false;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,63 @@
+package com.manqiyou.common.core.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceDataSnapshotTest {
+
+    @Test
+    void scheduledRefreshNotifiesOnlyWhenDataChanges() throws InterruptedException {
+        AtomicReference<List<String>> source = new AtomicReference<>(List.of("b", "a"));
+        AtomicInteger loads = new AtomicInteger();
+        Semaphore changed = new Semaphore(0);
+        try (ReferenceDataSnapshot<String, String> snapshot = new ReferenceDataSnapshot<>("test",
+                () -> {
+                    loads.incrementAndGet();
+                    return source.get();
+                }, Function.identity(), String::compareTo)) {
+            assertEquals(List.of("a", "b"), snapshot.all());
+            snapshot.refreshEvery(10, TimeUnit.MILLISECONDS, changed::release);
+
+            // 数据未变化：多次刷新都不回调
+            int before = loads.get();
+            while (loads.get() < before + 3) {
+                Thread.sleep(5);
+            }
+            assertFalse(changed.tryAcquire());
+
+            source.set(List.of("a", "b", "c"));
+            assertTrue(changed.tryAcquire(5, TimeUnit.SECONDS));
+            assertEquals("c", snapshot.get("c"));
+        }
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousSnapshotAndKeepsScheduling() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        try (ReferenceDataSnapshot<String, String> snapshot = new ReferenceDataSnapshot<>("test",
+                () -> {
+                    if (loads.incrementAndGet() > 1) {
+                        throw new IllegalStateException("db down");
+                    }
+                    return List.of("a");
+                }, Function.identity(), null)) {
+            assertEquals(List.of("a"), snapshot.all());
+            snapshot.refreshEvery(10, TimeUnit.MILLISECONDS);
+            while (loads.get() < 4) {
+                Thread.sleep(5);
+            }
+            assertEquals(List.of("a"), snapshot.all());
+            assertEquals(1, snapshot.version());
+        }
+    }
+}
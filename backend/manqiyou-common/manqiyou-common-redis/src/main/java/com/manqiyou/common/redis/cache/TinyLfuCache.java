@@ -0,0 +1,112 @@
+package com.manqiyou.common.redis.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界本地缓存（W-TinyLFU 风格准入）
+ * 新条目先进入容量约 1% 的窗口区（LRU）；被挤出窗口的候选者只有在估计访问频率高于主区淘汰者时才进入主区，
+ * 避免一次性扫描冲掉热点数据。条目按写入时间过期。
+ */
+final class TinyLfuCache<K, V> {
+
+    private final int windowMax;
+    private final int mainMax;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+
+    private final LongAdder evictions = new LongAdder();
+
+    TinyLfuCache(int maximumSize, long ttlMillis) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.windowMax = Math.max(1, maximumSize / 100);
+        this.mainMax = maximumSize - windowMax;
+        this.ttlMillis = ttlMillis;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    synchronized V get(K key) {
+        sketch.increment(key);
+        Entry<V> entry = window.get(key);
+        LinkedHashMap<K, Entry<V>> segment = window;
+        if (entry == null) {
+            entry = main.get(key);
+            segment = main;
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireAt <= System.currentTimeMillis()) {
+            segment.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.currentTimeMillis() + ttlMillis);
+        if (window.containsKey(key)) {
+            window.put(key, entry);
+            return;
+        }
+        if (main.containsKey(key)) {
+            main.put(key, entry);
+            return;
+        }
+        sketch.increment(key);
+        window.put(key, entry);
+        if (window.size() > windowMax) {
+            admit();
+        }
+    }
+
+    synchronized void remove(K key) {
+        window.remove(key);
+        main.remove(key);
+    }
+
+    synchronized void clear() {
+        window.clear();
+        main.clear();
+    }
+
+    synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 窗口区最久未访问的条目作为候选者，与主区淘汰者比较频率决定去留
+     */
+    private void admit() {
+        Iterator<Map.Entry<K, Entry<V>>> windowIt = window.entrySet().iterator();
+        Map.Entry<K, Entry<V>> candidate = windowIt.next();
+        windowIt.remove();
+        if (main.size() < mainMax) {
+            main.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        evictions.increment();
+        if (mainMax == 0) {
+            return;
+        }
+        Iterator<Map.Entry<K, Entry<V>>> mainIt = main.entrySet().iterator();
+        Map.Entry<K, Entry<V>> victim = mainIt.next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+            mainIt.remove();
+            main.put(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private record Entry<V>(V value, long expireAt) {
+    }
+}
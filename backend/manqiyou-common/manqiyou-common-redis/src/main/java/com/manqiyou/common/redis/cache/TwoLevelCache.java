@@ -0,0 +1,253 @@
+package com.manqiyou.common.redis.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 二级缓存：本地 L1（TinyLfuCache）+ Redis L2
+ * 读取先查 L1，未命中再查 L2 并回填 L1；写入和失效同时作用于两级，并广播失效消息让其他节点丢弃 L1。
+ * 缓存 key 统一按 String.valueOf 转为字符串。null 值只缓存在 L1，不写入 Redis。Redis 不可用时退化为仅 L1。
+ * 同一 key 的并发加载合并为一次，不同 key 互不阻塞。
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final String name;
+    private final TinyLfuCache<String, Object> local;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+    private final CacheInvalidationPublisher publisher;
+
+    /**
+     * 进程内正在进行的加载，同一key的并发请求共用一个
+     */
+    private final Map<String, CompletableFuture<Object>> inflightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * 按 key 分段的失效版本号，L1 每次失效或写入前递增；
+     * 从 L2 读到的值回填 L1 后若版本已变，说明读取期间发生了失效，丢弃回填，避免旧值覆盖回 L1
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TwoLevelCache(String name, int maximumSize, Duration ttl, RedisTemplate<String, Object> redisTemplate,
+                         CacheInvalidationPublisher publisher) {
+        super(true);
+        this.name = name;
+        this.local = new TinyLfuCache<>(maximumSize, ttl.toMillis());
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = String.valueOf(key);
+        Object value = local.get(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        int stripe = stripe(localKey);
+        long version = versions.get(stripe);
+        try {
+            value = redisTemplate.opsForValue().get(redisKey(key));
+        } catch (RuntimeException e) {
+            log.warn("读取二级缓存[{}]失败: {}", name, e.getMessage());
+            value = null;
+        }
+        if (value != null) {
+            l2Hits.increment();
+            local.put(localKey, value);
+            if (versions.get(stripe) != version) {
+                local.remove(localKey);
+            }
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        String localKey = String.valueOf(key);
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflightLoads.putIfAbsent(localKey, future);
+        if (existing != null) {
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            // 拿到加载权之前其他线程可能刚加载完成
+            cached = get(key);
+            T value;
+            if (cached != null) {
+                value = (T) cached.get();
+            } else {
+                value = load(key, valueLoader);
+                put(key, value);
+            }
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflightLoads.remove(localKey, future);
+        }
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = toStoreValue(value);
+        if (stored != NullValue.INSTANCE) {
+            try {
+                redisTemplate.opsForValue().set(redisKey(key), stored, ttl);
+            } catch (RuntimeException e) {
+                log.warn("写入二级缓存[{}]失败: {}", name, e.getMessage());
+            }
+        }
+        invalidate(String.valueOf(key));
+        local.put(String.valueOf(key), stored);
+        publisher.publishEvict(name, key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            redisTemplate.delete(redisKey(key));
+        } catch (RuntimeException e) {
+            log.warn("删除二级缓存[{}]失败: {}", name, e.getMessage());
+        }
+        evictLocal(String.valueOf(key));
+        publisher.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        ScanOptions options = ScanOptions.scanOptions().match(keyPrefix() + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> keys = new ArrayList<>();
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() >= 1000) {
+                    redisTemplate.delete(keys);
+                    keys.clear();
+                }
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        } catch (RuntimeException e) {
+            log.warn("清空二级缓存[{}]失败: {}", name, e.getMessage());
+        }
+        clearLocal();
+        publisher.publishClear(name);
+    }
+
+    /**
+     * 收到其他节点的失效广播时只丢弃 L1
+     */
+    void evictLocal(String key) {
+        invalidate(key);
+        local.remove(key);
+    }
+
+    void clearLocal() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        local.clear();
+    }
+
+    private void invalidate(String key) {
+        versions.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * 各级命中统计
+     */
+    public Map<String, Object> stats() {
+        long l1 = l1Hits.sum();
+        long l2 = l2Hits.sum();
+        long miss = misses.sum();
+        long total = l1 + l2 + miss;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("name", name);
+        stats.put("l1Size", local.size());
+        stats.put("l1Evictions", local.evictionCount());
+        stats.put("l1Hits", l1);
+        stats.put("l2Hits", l2);
+        stats.put("misses", miss);
+        stats.put("l1HitRate", total == 0 ? 0.0 : (double) l1 / total);
+        stats.put("l2HitRate", total == 0 ? 0.0 : (double) l2 / total);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) (l1 + l2) / total);
+        return stats;
+    }
+
+    private String keyPrefix() {
+        return "cache:" + name + ":";
+    }
+
+    private String redisKey(Object key) {
+        return keyPrefix() + key;
+    }
+}
@@ -0,0 +1,49 @@
+package com.manqiyou.common.redis.cache;
+
+import com.manqiyou.common.redis.serializer.CompactRedisSerializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 二级缓存配置
+ * 注册为 Spring CacheManager，服务中直接使用 @Cacheable / @CacheEvict；
+ * manqiyou.cache.two-level.enabled=false 时不启用
+ */
+@Slf4j
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+@ConditionalOnProperty(name = "manqiyou.cache.two-level.enabled", havingValue = "true", matchIfMissing = true)
+public class TwoLevelCacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate) {
+        return new CacheInvalidationPublisher(stringRedisTemplate);
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisTemplate<String, Object> redisTemplate,
+                                             CompactRedisSerializer compactRedisSerializer,
+                                             CacheInvalidationPublisher publisher,
+                                             TwoLevelCacheProperties properties) {
+        return new TwoLevelCacheManager(redisTemplate, compactRedisSerializer, publisher, properties);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        return container;
+    }
+}
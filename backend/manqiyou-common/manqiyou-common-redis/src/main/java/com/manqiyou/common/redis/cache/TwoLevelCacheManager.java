@@ -0,0 +1,102 @@
+package com.manqiyou.common.redis.cache;
+
+import com.manqiyou.common.redis.config.RedisConfig;
+import com.manqiyou.common.redis.serializer.CompactRedisSerializer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 二级缓存管理器
+ * 缓存按名称首次使用时创建，容量、过期时间和序列化方式取 manqiyou.cache.caches.{name}，未配置时使用默认值；
+ * 同时作为失效广播的订阅者，把其他节点的失效转发到对应缓存的 L1
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CompactRedisSerializer compactSerializer;
+    private volatile RedisTemplate<String, Object> compactTemplate;
+    private final CacheInvalidationPublisher publisher;
+    private final TwoLevelCacheProperties properties;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisTemplate<String, Object> redisTemplate, CompactRedisSerializer compactSerializer,
+                                CacheInvalidationPublisher publisher, TwoLevelCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.compactSerializer = compactSerializer;
+        this.publisher = publisher;
+        this.properties = properties;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * 各缓存的分级命中统计
+     */
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || publisher.getNodeId().equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if ("C".equals(parts[1])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        TwoLevelCacheProperties.Spec spec = properties.getCaches().getOrDefault(name, properties.getDefaults());
+        int maximumSize = spec.getMaxSize() > 0 ? spec.getMaxSize() : properties.getDefaults().getMaxSize();
+        long ttlSeconds = spec.getTtlSeconds() > 0 ? spec.getTtlSeconds() : properties.getDefaults().getTtlSeconds();
+        String serializer = spec.getSerializer() != null ? spec.getSerializer() : properties.getDefaults().getSerializer();
+        RedisTemplate<String, Object> template = "compact".equalsIgnoreCase(serializer) ? compactTemplate() : redisTemplate;
+        return new TwoLevelCache(name, maximumSize, Duration.ofSeconds(ttlSeconds), template, publisher);
+    }
+
+    /**
+     * 紧凑序列化的模板，与默认模板共用连接，首次使用时创建
+     */
+    private RedisTemplate<String, Object> compactTemplate() {
+        RedisTemplate<String, Object> template = compactTemplate;
+        if (template == null) {
+            synchronized (this) {
+                template = compactTemplate;
+                if (template == null) {
+                    template = RedisConfig.createTemplate(redisTemplate.getRequiredConnectionFactory(), compactSerializer);
+                    compactTemplate = template;
+                }
+            }
+        }
+        return template;
+    }
+}
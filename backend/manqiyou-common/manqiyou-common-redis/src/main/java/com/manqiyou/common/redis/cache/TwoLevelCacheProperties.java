@@ -0,0 +1,43 @@
+package com.manqiyou.common.redis.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存配置（manqiyou.cache）
+ */
+@Data
+@ConfigurationProperties(prefix = "manqiyou.cache")
+public class TwoLevelCacheProperties {
+
+    /**
+     * 未单独配置的缓存使用的默认值
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * 按缓存名单独配置
+     */
+    private Map<String, Spec> caches = new HashMap<>();
+
+    @Data
+    public static class Spec {
+        /**
+         * L1 最大条目数
+         */
+        private int maxSize = 1000;
+
+        /**
+         * L1 和 L2 的过期时间（秒）
+         */
+        private long ttlSeconds = 300;
+
+        /**
+         * L2 值序列化方式：json（与 RedisTemplate 相同）或 compact（紧凑二进制，值类型须在 RedisTypeRegistry 中注册）
+         */
+        private String serializer;
+    }
+}
@@ -5,24 +5,78 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.manqiyou.common.redis.serializer.CompactRedisSerializer;
+import com.manqiyou.common.redis.serializer.RedisTypeRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
  * Redis配置类
+ * 值序列化方式由 manqiyou.redis.serializer 选择：json（默认，带类名的JSON）或 compact（紧凑二进制）
  */
 @Configuration
 public class RedisConfig {
 
+    @Value("${manqiyou.redis.serializer:json}")
+    private String serializerType;
+
+    /**
+     * 紧凑序列化时超过该字节数的值会被压缩
+     */
+    @Value("${manqiyou.redis.compress-threshold:1024}")
+    private int compressThreshold;
+
+    /**
+     * 紧凑序列化的类型注册表，业务模块可注入后注册自己的类型
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RedisTypeRegistry redisTypeRegistry() {
+        return new RedisTypeRegistry();
+    }
+
+    @Bean
+    public CompactRedisSerializer compactRedisSerializer(RedisTypeRegistry redisTypeRegistry) {
+        return new CompactRedisSerializer(redisTypeRegistry, compressThreshold);
+    }
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       CompactRedisSerializer compactRedisSerializer) {
+        RedisSerializer<Object> serializer = "compact".equalsIgnoreCase(serializerType)
+                ? compactRedisSerializer : jsonSerializer();
+        return createTemplate(connectionFactory, serializer);
+    }
+
+    /**
+     * 按指定的值序列化方式创建RedisTemplate
+     */
+    public static RedisTemplate<String, Object> createTemplate(RedisConnectionFactory connectionFactory,
+                                                               RedisSerializer<Object> serializer) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
+        // 设置key和value的序列化方式
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(serializer);
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * 带类名的JSON序列化
+     */
+    public static RedisSerializer<Object> jsonSerializer() {
         // 配置ObjectMapper
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
@@ -34,15 +88,6 @@ public class RedisConfig {
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
         // 使用Jackson2JsonRedisSerializer序列化
-        Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
-
-        // 设置key和value的序列化方式
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(serializer);
-        template.setHashKeySerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(serializer);
-
-        template.afterPropertiesSet();
-        return template;
+        return new Jackson2JsonRedisSerializer<>(objectMapper, Object.class);
     }
 }
@@ -0,0 +1,143 @@
+package com.manqiyou.common.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 紧凑二进制Redis序列化器
+ * 使用Smile二进制格式（属性名回引用，数值定长编码），类型信息写注册表中的短ID而不是类名，
+ * 只有注册表中的类型可以序列化和反序列化（见 {@link RegistryTypeValidator}）；
+ * 编码结果超过阈值时以最快级别Deflate压缩。
+ * 格式：1字节头（0 未压缩 / 1 已压缩），压缩时后跟4字节原始长度，再接数据。
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    private final ObjectMapper mapper;
+    private final int compressThreshold;
+
+    /**
+     * @param compressThreshold 超过该字节数时压缩，不大于0表示不压缩
+     */
+    public CompactRedisSerializer(RedisTypeRegistry registry, int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+        this.mapper = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        ObjectMapper.DefaultTypeResolverBuilder typer = new ObjectMapper.DefaultTypeResolverBuilder(
+                ObjectMapper.DefaultTyping.NON_FINAL, new RegistryTypeValidator(registry));
+        typer.init(JsonTypeInfo.Id.CUSTOM, new RegistryTypeIdResolver(registry));
+        typer.inclusion(JsonTypeInfo.As.WRAPPER_ARRAY);
+        this.mapper.setDefaultTyping(typer);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] encoded;
+        try {
+            encoded = mapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("紧凑序列化失败: " + value.getClass().getName(), e);
+        }
+        if (compressThreshold > 0 && encoded.length > compressThreshold) {
+            byte[] compressed = deflate(encoded);
+            if (compressed.length + 5 < encoded.length + 1) {
+                byte[] out = new byte[compressed.length + 5];
+                out[0] = DEFLATED;
+                writeInt(out, 1, encoded.length);
+                System.arraycopy(compressed, 0, out, 5, compressed.length);
+                return out;
+            }
+        }
+        byte[] out = new byte[encoded.length + 1];
+        out[0] = RAW;
+        System.arraycopy(encoded, 0, out, 1, encoded.length);
+        return out;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes[0] == DEFLATED) {
+                byte[] decoded = inflate(bytes, 5, readInt(bytes, 1));
+                return mapper.readValue(decoded, Object.class);
+            }
+            return mapper.readValue(bytes, 1, bytes.length - 1, Object.class);
+        } catch (Exception e) {
+            throw new SerializationException("紧凑反序列化失败", e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[Math.min(input.length, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int length) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] out = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int n = inflater.inflate(out, read, length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            return read == length ? out : Arrays.copyOf(out, read);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeInt(byte[] out, int offset, int value) {
+        out[offset] = (byte) (value >>> 24);
+        out[offset + 1] = (byte) (value >>> 16);
+        out[offset + 2] = (byte) (value >>> 8);
+        out[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] in, int offset) {
+        return ((in[offset] & 0xff) << 24) | ((in[offset + 1] & 0xff) << 16)
+                | ((in[offset + 2] & 0xff) << 8) | (in[offset + 3] & 0xff);
+    }
+}
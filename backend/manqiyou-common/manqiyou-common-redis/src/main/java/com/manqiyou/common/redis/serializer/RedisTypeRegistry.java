@@ -0,0 +1,92 @@
+package com.manqiyou.common.redis.serializer;
+
+import com.manqiyou.common.redis.service.CachedValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis紧凑序列化的类型注册表
+ * 为类型分配固定的短ID，序列化时写入ID而不是类名；ID写入Redis后即不可更改，各节点必须一致。
+ * 1-99 保留给常用JDK类型，业务类型从100开始注册；注册表同时是反序列化的白名单，未注册的类型不能写入也不能读出。
+ */
+public class RedisTypeRegistry {
+
+    public static final int FIRST_CUSTOM_ID = 100;
+
+    private final Map<Class<?>, String> idsByType = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> typesById = new ConcurrentHashMap<>();
+
+    public RedisTypeRegistry() {
+        registerInternal(1, ArrayList.class);
+        registerInternal(2, LinkedList.class);
+        registerInternal(3, HashMap.class);
+        registerInternal(4, LinkedHashMap.class);
+        registerInternal(5, TreeMap.class);
+        registerInternal(6, HashSet.class);
+        registerInternal(7, LinkedHashSet.class);
+        registerInternal(10, BigDecimal.class);
+        registerInternal(11, BigInteger.class);
+        registerInternal(12, Date.class);
+        registerInternal(20, CachedValue.class);
+    }
+
+    /**
+     * 注册业务类型
+     *
+     * @param id 不小于 {@link #FIRST_CUSTOM_ID} 的固定ID
+     */
+    public RedisTypeRegistry register(int id, Class<?> type) {
+        if (id < FIRST_CUSTOM_ID) {
+            throw new IllegalArgumentException("业务类型ID必须不小于 " + FIRST_CUSTOM_ID + ": " + type.getName());
+        }
+        registerInternal(id, type);
+        return this;
+    }
+
+    private void registerInternal(int id, Class<?> type) {
+        String key = Integer.toString(id);
+        Class<?> existing = typesById.putIfAbsent(key, type);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException("类型ID " + id + " 已被 " + existing.getName() + " 使用");
+        }
+        idsByType.put(type, key);
+    }
+
+    /**
+     * 类型ID，未注册时返回null
+     */
+    String idOf(Class<?> type) {
+        return idsByType.get(type);
+    }
+
+    boolean isRegistered(Class<?> type) {
+        return idsByType.containsKey(type);
+    }
+
+    boolean isRegistered(String className) {
+        for (Class<?> type : idsByType.keySet()) {
+            if (type.getName().equals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按ID查找类型，未注册时返回null
+     */
+    Class<?> typeOf(String id) {
+        return typesById.get(id);
+    }
+}
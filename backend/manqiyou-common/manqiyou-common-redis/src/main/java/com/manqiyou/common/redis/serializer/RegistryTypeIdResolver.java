@@ -0,0 +1,49 @@
+package com.manqiyou.common.redis.serializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.jsontype.impl.TypeIdResolverBase;
+
+import java.io.IOException;
+
+/**
+ * 按注册表解析类型ID：只接受已注册类型，未注册类型在序列化时报错，反序列化时拒绝，
+ * 不会按类名加载任意类
+ */
+class RegistryTypeIdResolver extends TypeIdResolverBase {
+
+    private final RedisTypeRegistry registry;
+
+    RegistryTypeIdResolver(RedisTypeRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        return idFromValueAndType(value, value.getClass());
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> suggestedType) {
+        String id = registry.idOf(suggestedType);
+        if (id == null) {
+            throw new IllegalArgumentException("未注册的缓存类型: " + suggestedType.getName());
+        }
+        return id;
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        Class<?> type = registry.typeOf(id);
+        if (type == null) {
+            throw new IOException("未注册的缓存类型ID: " + id);
+        }
+        return context.constructType(type);
+    }
+
+    @Override
+    public JsonTypeInfo.Id getMechanism() {
+        return JsonTypeInfo.Id.CUSTOM;
+    }
+}
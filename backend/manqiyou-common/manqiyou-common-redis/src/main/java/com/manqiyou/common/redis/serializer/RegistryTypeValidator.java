@@ -0,0 +1,29 @@
+package com.manqiyou.common.redis.serializer;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+
+/**
+ * 多态子类型白名单：只允许注册表中的类型，其余一律拒绝
+ */
+class RegistryTypeValidator extends PolymorphicTypeValidator.Base {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient RedisTypeRegistry registry;
+
+    RegistryTypeValidator(RedisTypeRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Validity validateSubClassName(MapperConfig<?> config, JavaType baseType, String subClassName) {
+        return registry.isRegistered(subClassName) ? Validity.ALLOWED : Validity.DENIED;
+    }
+
+    @Override
+    public Validity validateSubType(MapperConfig<?> config, JavaType baseType, JavaType subType) {
+        return registry.isRegistered(subType.getRawClass()) ? Validity.ALLOWED : Validity.DENIED;
+    }
+}
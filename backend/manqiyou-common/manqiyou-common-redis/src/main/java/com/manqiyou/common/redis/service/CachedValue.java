@@ -0,0 +1,27 @@
+package com.manqiyou.common.redis.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * getOrLoad 写入Redis的缓存值
+ * 除值本身外记录加载耗时和逻辑过期时间，用于提前刷新的概率计算
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue {
+
+    private Object value;
+
+    /**
+     * 上次加载耗时（毫秒）
+     */
+    private long loadMillis;
+
+    /**
+     * 逻辑过期时间（毫秒时间戳），之后仍可在宽限期内作为旧值返回
+     */
+    private long expireAt;
+}
@@ -0,0 +1,146 @@
+package com.manqiyou.common.redis.service;
+
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Redis管道批处理
+ * 先登记命令并拿到类型化的结果占位，execute() 时所有命令在一次往返中发送，再按顺序回填结果。
+ * 每条命令只产生一个结果；实例非线程安全，只能执行一次。
+ */
+public class RedisBatch {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final List<Function<RedisOperations<String, Object>, ?>> commands = new ArrayList<>();
+    private final List<Slot<?>> slots = new ArrayList<>();
+    private boolean executed;
+
+    RedisBatch(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public <T> Slot<T> get(String key) {
+        return add(ops -> ops.opsForValue().get(key));
+    }
+
+    public Slot<Boolean> set(String key, Object value) {
+        return add(ops -> {
+            ops.opsForValue().set(key, value);
+            return null;
+        });
+    }
+
+    public Slot<Boolean> set(String key, Object value, long timeout, TimeUnit unit) {
+        return add(ops -> {
+            ops.opsForValue().set(key, value, timeout, unit);
+            return null;
+        });
+    }
+
+    /**
+     * 删除key；管道中 DEL 的回复是删除数量，转换为与 RedisTemplate.delete 一致的是否删除
+     */
+    public Slot<Boolean> delete(String key) {
+        return add(ops -> ops.delete(key), reply -> reply instanceof Number count ? count.longValue() > 0 : reply);
+    }
+
+    public Slot<Long> increment(String key, long delta) {
+        return add(ops -> ops.opsForValue().increment(key, delta));
+    }
+
+    public Slot<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        return add(ops -> ops.expire(key, timeout, unit));
+    }
+
+    public Slot<Boolean> hasKey(String key) {
+        return add(ops -> ops.hasKey(key));
+    }
+
+    /**
+     * 登记任意单条命令；命令在管道中执行，返回值被忽略，结果取自管道回复
+     */
+    public <T> Slot<T> add(Function<RedisOperations<String, Object>, ?> command) {
+        return add(command, Function.identity());
+    }
+
+    /**
+     * 登记任意单条命令，管道回复经 converter 转换后回填
+     */
+    public <T> Slot<T> add(Function<RedisOperations<String, Object>, ?> command, Function<Object, ?> converter) {
+        if (executed) {
+            throw new IllegalStateException("RedisBatch 已执行");
+        }
+        Slot<T> slot = new Slot<>(converter);
+        commands.add(command);
+        slots.add(slot);
+        return slot;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 在一次往返中发送全部命令并回填结果
+     */
+    @SuppressWarnings("unchecked")
+    public void execute() {
+        if (executed) {
+            throw new IllegalStateException("RedisBatch 已执行");
+        }
+        executed = true;
+        if (commands.isEmpty()) {
+            return;
+        }
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                for (Function<RedisOperations<String, Object>, ?> command : commands) {
+                    command.apply(ops);
+                }
+                return null;
+            }
+        });
+        if (results.size() != slots.size()) {
+            throw new InvalidDataAccessApiUsageException(
+                    "管道结果数 " + results.size() + " 与命令数 " + slots.size() + " 不一致，每条命令只能发送一个Redis命令");
+        }
+        for (int i = 0; i < slots.size(); i++) {
+            slots.get(i).set(results.get(i));
+        }
+    }
+
+    /**
+     * 命令结果占位，execute() 后可读取
+     */
+    public static final class Slot<T> {
+        private final Function<Object, ?> converter;
+        private T value;
+        private boolean done;
+
+        private Slot(Function<Object, ?> converter) {
+            this.converter = converter;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void set(Object reply) {
+            this.value = (T) converter.apply(reply);
+            this.done = true;
+        }
+
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("RedisBatch 尚未执行");
+            }
+            return value;
+        }
+    }
+}
@@ -1,20 +1,76 @@
 package com.manqiyou.common.redis.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Redis服务类
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RedisService {
 
+    private static final String LOAD_LOCK_PREFIX = "lock:load:";
+
+    /**
+     * 跨节点加载锁的持有时间，也是等待其他节点加载的最长时间
+     */
+    private static final Duration LOAD_LOCK_TTL = Duration.ofSeconds(3);
+    private static final long LOAD_WAIT_POLL_MILLIS = 20;
+
+    /**
+     * 提前刷新系数，越大越早刷新
+     */
+    private static final double EARLY_REFRESH_BETA = 1.0;
+
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
     private final RedisTemplate<String, Object> redisTemplate;
 
+    /**
+     * 进程内正在进行的加载，同一key的并发请求共用一个
+     */
+    private final Map<String, CompletableFuture<Object>> inflightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * 正在后台刷新的key；刷新不进入 inflightLoads，其他节点持有锁时刷新直接放弃，未命中的请求不能拿到它的空结果
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 后台刷新线程池，队列满时拒绝（下次请求会再触发）
+     */
+    private final ThreadPoolExecutor refreshExecutor = newRefreshExecutor();
+
     /**
      * 设置缓存
      */
@@ -78,4 +134,271 @@ public class RedisService {
     public Long decrement(String key, long delta) {
         return redisTemplate.opsForValue().decrement(key, delta);
     }
+
+    // ==================== 批量操作：一次往返 ====================
+
+    /**
+     * 批量获取缓存（MGET），返回 key -> 值，不存在的key不在结果中；结果保持keys顺序
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> multiGet(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> keyList = new ArrayList<>(keys);
+        List<Object> values = redisTemplate.opsForValue().multiGet(keyList);
+        Map<String, T> result = new LinkedHashMap<>();
+        if (values != null) {
+            for (int i = 0; i < keyList.size(); i++) {
+                Object value = values.get(i);
+                if (value != null) {
+                    result.put(keyList.get(i), (T) value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量设置缓存（MSET，不过期）
+     */
+    public void multiSet(Map<String, ?> values) {
+        if (!values.isEmpty()) {
+            redisTemplate.opsForValue().multiSet(values);
+        }
+    }
+
+    /**
+     * 批量设置缓存，所有key使用相同的过期时间（管道）
+     */
+    public void multiSet(Map<String, ?> values, long timeout, TimeUnit unit) {
+        Duration ttl = Duration.ofMillis(unit.toMillis(timeout));
+        multiSet(values, key -> ttl);
+    }
+
+    /**
+     * 批量设置缓存，每个key单独指定过期时间（管道）；ttl 为null或非正数时不过期
+     */
+    public void multiSet(Map<String, ?> values, Function<String, Duration> ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+        RedisBatch batch = batch();
+        values.forEach((key, value) -> {
+            Duration duration = ttl.apply(key);
+            if (duration == null || duration.isZero() || duration.isNegative()) {
+                batch.set(key, value);
+            } else {
+                batch.set(key, value, duration.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        });
+        batch.execute();
+    }
+
+    /**
+     * 批量删除缓存（DEL），返回实际删除的数量
+     */
+    public Long deleteAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0L;
+        }
+        return redisTemplate.delete(keys);
+    }
+
+    /**
+     * 创建管道批处理，登记的命令在 execute() 时一次发送
+     */
+    public RedisBatch batch() {
+        return new RedisBatch(redisTemplate);
+    }
+
+    // ==================== 防缓存击穿加载 ====================
+
+    /**
+     * 读取缓存，不存在时通过 loader 加载并写入，过期时间为 ttl，过期后的宽限期为 ttl 的四分之一
+     *
+     * @see #getOrLoad(String, Duration, Duration, Supplier)
+     */
+    public <T> T getOrLoad(String key, Duration ttl, Supplier<T> loader) {
+        return getOrLoad(key, ttl, ttl.dividedBy(4), loader);
+    }
+
+    /**
+     * 读取缓存，不存在时通过 loader 加载并写入
+     * <ul>
+     *   <li>同一进程内同一key的并发加载合并为一次，其余请求等待同一结果</li>
+     *   <li>跨节点通过短期Redis锁只让一个节点加载，其他节点等待其写入</li>
+     *   <li>临近过期时按加载耗时概率性提前刷新（XFetch），热点key在过期前就会被刷新</li>
+     *   <li>需要刷新时先返回旧值，由后台线程重新加载；逻辑过期后 staleWindow 内仍返回旧值</li>
+     * </ul>
+     * loader 返回 null 时不缓存；Redis不可用时直接加载（仍合并进程内并发）
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(String key, Duration ttl, Duration staleWindow, Supplier<T> loader) {
+        CachedValue cached = readCached(key);
+        if (cached != null) {
+            if (shouldRefresh(cached, System.currentTimeMillis())) {
+                refreshAsync(key, ttl, staleWindow, loader);
+            }
+            return (T) cached.getValue();
+        }
+        try {
+            return (T) load(key, ttl, staleWindow, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * XFetch：剩余时间越短、加载越慢，越可能提前刷新；已逻辑过期时总是刷新
+     */
+    private static boolean shouldRefresh(CachedValue cached, long now) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        double gap = -cached.getLoadMillis() * EARLY_REFRESH_BETA * Math.log(random);
+        return now + gap >= cached.getExpireAt();
+    }
+
+    private <T> void refreshAsync(String key, Duration ttl, Duration staleWindow, Supplier<T> loader) {
+        if (inflightLoads.containsKey(key) || !refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    loadWithLock(key, ttl, staleWindow, loader, false);
+                } catch (RuntimeException e) {
+                    log.warn("后台刷新缓存失败: {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * 进程内合并加载，其他节点持有锁时等待其结果
+     */
+    private <T> CompletableFuture<Object> load(String key, Duration ttl, Duration staleWindow, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflightLoads.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            future.complete(loadWithLock(key, ttl, staleWindow, loader, true));
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        } finally {
+            inflightLoads.remove(key, future);
+        }
+        return future;
+    }
+
+    /**
+     * @param waitForOthers 其他节点持有锁时是否等待其结果；后台刷新不等待，直接放弃
+     */
+    private <T> Object loadWithLock(String key, Duration ttl, Duration staleWindow, Supplier<T> loader,
+                                    boolean waitForOthers) {
+        String lockKey = LOAD_LOCK_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        Boolean locked;
+        try {
+            locked = redisTemplate.opsForValue().setIfAbsent(lockKey, token, LOAD_LOCK_TTL);
+        } catch (DataAccessException e) {
+            log.warn("获取加载锁失败，直接加载: {}", key, e);
+            return loadAndStore(key, ttl, staleWindow, loader);
+        }
+        if (!Boolean.TRUE.equals(locked)) {
+            if (!waitForOthers) {
+                return null;
+            }
+            CachedValue loaded = awaitOtherNode(key);
+            return loaded != null ? loaded.getValue() : loadAndStore(key, ttl, staleWindow, loader);
+        }
+        try {
+            // 拿到锁之前其他节点可能刚写入
+            CachedValue cached = readCached(key);
+            if (cached != null && cached.getExpireAt() > System.currentTimeMillis() && waitForOthers) {
+                return cached.getValue();
+            }
+            return loadAndStore(key, ttl, staleWindow, loader);
+        } finally {
+            try {
+                redisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), token);
+            } catch (DataAccessException e) {
+                log.warn("释放加载锁失败: {}", lockKey, e);
+            }
+        }
+    }
+
+    /**
+     * 等待持有锁的节点写入新值，超过锁有效期仍未写入时返回null
+     */
+    private CachedValue awaitOtherNode(String key) {
+        long deadline = System.currentTimeMillis() + LOAD_LOCK_TTL.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOAD_WAIT_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CachedValue cached = readCached(key);
+            if (cached != null && cached.getExpireAt() > System.currentTimeMillis()) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    private <T> Object loadAndStore(String key, Duration ttl, Duration staleWindow, Supplier<T> loader) {
+        long start = System.currentTimeMillis();
+        T value = loader.get();
+        long end = System.currentTimeMillis();
+        if (value != null) {
+            try {
+                redisTemplate.opsForValue().set(key, new CachedValue(value, end - start, end + ttl.toMillis()),
+                        ttl.plus(staleWindow));
+            } catch (DataAccessException | SerializationException e) {
+                log.warn("写入缓存失败: {}", key, e);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 读取缓存的值；Redis 不可用或值无法反序列化（类结构变更、序列化方式切换）时按未命中处理，由调用方重新加载覆盖
+     */
+    private CachedValue readCached(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key) instanceof CachedValue cached ? cached : null;
+        } catch (DataAccessException | SerializationException e) {
+            log.warn("读取缓存失败: {}", key, e);
+            return null;
+        }
+    }
+
+    private static ThreadPoolExecutor newRefreshExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1000), runnable -> {
+                    Thread thread = new Thread(runnable, "redis-cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
 }
@@ -0,0 +1,151 @@
+package com.manqiyou.common.redis.service;
+
+import com.manqiyou.common.core.id.SnowflakeIdGenerator;
+import com.manqiyou.common.core.id.WorkerIdAssigner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis租约的Snowflake节点ID分配（manqiyou.id.worker-id-source=redis）
+ * 从随机位置开始用 SET NX 抢占 id:worker:{n}，持有期间定时续约，关闭时释放。
+ * 租约有效期从发出请求时算起，本地超过有效期仍未续约成功时 current() 抛出异常，生成器停止生成；
+ * 续约发现租约已丢失时重新抢占一个节点ID
+ */
+@Slf4j
+@Component
+@ConditionalOnClass(name = "com.manqiyou.common.core.id.WorkerIdAssigner")
+@ConditionalOnProperty(name = "manqiyou.id.worker-id-source", havingValue = "redis")
+public class RedisWorkerIdAssigner implements WorkerIdAssigner {
+
+    private static final String KEY_PREFIX = "id:worker:";
+    private static final Duration LEASE = Duration.ofSeconds(60);
+
+    /**
+     * 仍由自己持有时续约（返回1）或释放（ARGV[2]为0时删除）
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end "
+                    + "if ARGV[2] == '0' then return redis.call('DEL', KEYS[1]) end "
+                    + "return redis.call('PEXPIRE', KEYS[1], ARGV[2])",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration lease;
+    private final String token = UUID.randomUUID().toString();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "worker-id-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 当前租约，节点ID与有效期一起替换
+     */
+    private volatile Lease held;
+
+    public RedisWorkerIdAssigner(StringRedisTemplate stringRedisTemplate) {
+        this(stringRedisTemplate, LEASE);
+    }
+
+    RedisWorkerIdAssigner(StringRedisTemplate stringRedisTemplate, Duration lease) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.lease = lease;
+    }
+
+    @Override
+    public synchronized long assign() {
+        if (held != null) {
+            return held.workerId();
+        }
+        held = acquire();
+        if (held == null) {
+            throw new IllegalStateException("没有可用的Snowflake节点ID");
+        }
+        long period = lease.toMillis() / 3;
+        scheduler.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+        return held.workerId();
+    }
+
+    @Override
+    public long current() {
+        Lease current = held;
+        if (current == null || System.nanoTime() - current.validUntil() > 0) {
+            throw new IllegalStateException("Snowflake 节点ID租约已失效，暂停生成ID");
+        }
+        return current.workerId();
+    }
+
+    /**
+     * 从随机位置开始抢占空闲的节点ID，全部被占用时返回null
+     */
+    private Lease acquire() {
+        int size = SnowflakeIdGenerator.MAX_WORKER_ID + 1;
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int workerId = (start + i) % size;
+            String key = KEY_PREFIX + workerId;
+            long requestedAt = System.nanoTime();
+            if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, token, lease))) {
+                return new Lease(key, workerId, requestedAt + lease.toNanos());
+            }
+        }
+        return null;
+    }
+
+    synchronized void renew() {
+        Lease current = held;
+        long requestedAt = System.nanoTime();
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(current.key()), token,
+                    String.valueOf(lease.toMillis()));
+            if (renewed != null && renewed == 1) {
+                held = new Lease(current.key(), current.workerId(), requestedAt + lease.toNanos());
+                return;
+            }
+            log.error("Snowflake 节点ID租约已丢失: {}，重新获取", current.key());
+            held = new Lease(current.key(), current.workerId(), requestedAt);
+            Lease acquired = acquire();
+            if (acquired == null) {
+                log.error("没有可用的Snowflake节点ID，暂停生成ID");
+                return;
+            }
+            held = acquired;
+            log.warn("Snowflake 节点ID改为 {}", acquired.workerId());
+        } catch (RuntimeException e) {
+            log.warn("Snowflake 节点ID续约失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        scheduler.shutdownNow();
+        Lease current = held;
+        if (current != null) {
+            try {
+                stringRedisTemplate.execute(RENEW_SCRIPT, List.of(current.key()), token, "0");
+            } catch (RuntimeException e) {
+                log.warn("释放 Snowflake 节点ID失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param validUntil 本地有效期（System.nanoTime）
+     */
+    private record Lease(String key, long workerId, long validUntil) {
+    }
+}
@@ -0,0 +1,321 @@
+package com.manqiyou.common.redis;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试用的进程内 Redis 替身
+ * 实现 RESP2 协议和测试用到的字符串命令子集（GET/SET/DEL/INCRBY/EXPIRE 等，支持过期），
+ * 每个连接一个线程，命令按到达顺序执行，可以验证管道、序列化等真实的客户端行为。
+ * 不支持 Lua 脚本和事务。
+ */
+public class MiniRedisServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Entry> store = new ConcurrentHashMap<>();
+    private final AtomicLong commands = new AtomicLong();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    public MiniRedisServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "mini-redis-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 已执行的命令数（含握手命令）
+     */
+    public long commandCount() {
+        return commands.get();
+    }
+
+    /**
+     * 连接到本服务器的 Lettuce 连接工厂（已启动）
+     */
+    public LettuceConnectionFactory connectionFactory() {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration("127.0.0.1", port()));
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handle(socket), "mini-redis-conn");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            socket.setTcpNoDelay(true);
+            RespReader in = new RespReader(socket.getInputStream(), out);
+            while (true) {
+                List<byte[]> args = in.readCommand();
+                if (args == null) {
+                    return;
+                }
+                commands.incrementAndGet();
+                execute(args, out);
+            }
+        } catch (IOException e) {
+            // 连接关闭
+        }
+    }
+
+    private void execute(List<byte[]> args, OutputStream out) throws IOException {
+        String command = new String(args.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+        switch (command) {
+            case "PING" -> simple(out, "PONG");
+            case "SELECT", "FLUSHDB", "FLUSHALL" -> {
+                if (!"SELECT".equals(command)) {
+                    store.clear();
+                }
+                simple(out, "OK");
+            }
+            case "GET" -> bulk(out, value(key(args, 1)));
+            case "SET" -> set(args, out);
+            case "SETEX" -> {
+                store.put(key(args, 1), new Entry(args.get(3), expireAt(number(args, 2) * 1000)));
+                simple(out, "OK");
+            }
+            case "PSETEX" -> {
+                store.put(key(args, 1), new Entry(args.get(3), expireAt(number(args, 2))));
+                simple(out, "OK");
+            }
+            case "MGET" -> {
+                out.write(("*" + (args.size() - 1) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (int i = 1; i < args.size(); i++) {
+                    bulk(out, value(key(args, i)));
+                }
+            }
+            case "DEL", "UNLINK" -> {
+                long removed = 0;
+                for (int i = 1; i < args.size(); i++) {
+                    if (value(key(args, i)) != null && store.remove(key(args, i)) != null) {
+                        removed++;
+                    }
+                }
+                integer(out, removed);
+            }
+            case "EXISTS" -> {
+                long found = 0;
+                for (int i = 1; i < args.size(); i++) {
+                    if (value(key(args, i)) != null) {
+                        found++;
+                    }
+                }
+                integer(out, found);
+            }
+            case "INCR", "INCRBY" -> {
+                long delta = "INCR".equals(command) ? 1 : number(args, 2);
+                long[] result = new long[1];
+                store.compute(key(args, 1), (k, entry) -> {
+                    boolean live = entry != null && !entry.isExpired();
+                    long current = live ? Long.parseLong(new String(entry.value, StandardCharsets.US_ASCII)) : 0;
+                    result[0] = current + delta;
+                    return new Entry(String.valueOf(result[0]).getBytes(StandardCharsets.US_ASCII),
+                        live ? entry.expireAt : 0);
+                });
+                integer(out, result[0]);
+            }
+            case "EXPIRE", "PEXPIRE" -> {
+                long millis = "EXPIRE".equals(command) ? number(args, 2) * 1000 : number(args, 2);
+                String key = key(args, 1);
+                byte[] value = value(key);
+                if (value != null) {
+                    store.put(key, new Entry(value, expireAt(millis)));
+                }
+                integer(out, value != null ? 1 : 0);
+            }
+            case "PTTL" -> {
+                Entry entry = store.get(key(args, 1));
+                if (entry == null || entry.isExpired()) {
+                    integer(out, -2);
+                } else {
+                    integer(out, entry.expireAt == 0 ? -1 : entry.expireAt - System.currentTimeMillis());
+                }
+            }
+            case "PUBLISH" -> integer(out, 0);
+            default -> error(out, "ERR unknown command '" + command + "'");
+        }
+    }
+
+    private void set(List<byte[]> args, OutputStream out) throws IOException {
+        String key = key(args, 1);
+        long expireAt = 0;
+        boolean nx = false;
+        boolean xx = false;
+        for (int i = 3; i < args.size(); i++) {
+            String option = new String(args.get(i), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+            switch (option) {
+                case "EX" -> expireAt = expireAt(number(args, ++i) * 1000);
+                case "PX" -> expireAt = expireAt(number(args, ++i));
+                case "NX" -> nx = true;
+                case "XX" -> xx = true;
+                default -> {
+                    error(out, "ERR syntax error");
+                    return;
+                }
+            }
+        }
+        boolean exists = value(key) != null;
+        if ((nx && exists) || (xx && !exists)) {
+            bulk(out, null);
+            return;
+        }
+        store.put(key, new Entry(args.get(2), expireAt));
+        simple(out, "OK");
+    }
+
+    private byte[] value(String key) {
+        Entry entry = store.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            store.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private static String key(List<byte[]> args, int index) {
+        return new String(args.get(index), StandardCharsets.ISO_8859_1);
+    }
+
+    private static long number(List<byte[]> args, int index) {
+        return Long.parseLong(new String(args.get(index), StandardCharsets.US_ASCII));
+    }
+
+    private static long expireAt(long millis) {
+        return System.currentTimeMillis() + millis;
+    }
+
+    private static void simple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void error(OutputStream out, String message) throws IOException {
+        out.write(("-" + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private record Entry(byte[] value, long expireAt) {
+        boolean isExpired() {
+            return expireAt != 0 && expireAt <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 请求读取；读缓冲耗尽、即将阻塞等待客户端时才写出已缓冲的回复，管道中的回复合并写出
+     */
+    private static final class RespReader {
+        private final InputStream in;
+        private final OutputStream out;
+        private final byte[] buffer = new byte[16 * 1024];
+        private int position;
+        private int limit;
+
+        RespReader(InputStream in, OutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        List<byte[]> readCommand() throws IOException {
+            String header = readLine();
+            if (header == null) {
+                return null;
+            }
+            if (header.charAt(0) != '*') {
+                throw new IOException("不支持的请求: " + header);
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] arg = new byte[Integer.parseInt(readLine().substring(1))];
+                for (int j = 0; j < arg.length; j++) {
+                    arg[j] = (byte) read();
+                }
+                read();
+                read();
+                args.add(arg);
+            }
+            return args;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = read()) != -1) {
+                if (b == '\r') {
+                    read();
+                    return line.toString();
+                }
+                line.append((char) b);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                out.flush();
+                limit = in.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++] & 0xff;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.manqiyou.common.redis.cache;
+
+import com.manqiyou.common.redis.MiniRedisServer;
+import com.manqiyou.common.redis.config.RedisConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TwoLevelCache 的按 key 合并加载，以及 L2 读取与失效并发时 L1 不回填旧值
+ */
+class TwoLevelCacheTest {
+
+    private static MiniRedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+    private static CacheInvalidationPublisher publisher;
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new MiniRedisServer();
+        connectionFactory = server.connectionFactory();
+        redisTemplate = RedisConfig.createTemplate(connectionFactory, RedisConfig.jsonSerializer());
+        publisher = new CacheInvalidationPublisher(new StringRedisTemplate(connectionFactory));
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @Test
+    void concurrentLoadsOfSameKeyRunOnce() throws Exception {
+        TwoLevelCache cache = cache("single-flight", redisTemplate);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "loaded";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void slowLoadDoesNotBlockOtherKeys() throws Exception {
+        TwoLevelCache cache = cache("per-key", redisTemplate);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> cache.get("slow", () -> {
+                slowStarted.countDown();
+                release.await();
+                return "slow";
+            }));
+            assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+            // 另一个 key 的加载不等待 slow 完成
+            assertEquals("fast", cache.get("fast", () -> "fast"));
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * L2 读到旧值后、回填 L1 前收到其他节点的失效广播：L1 不能留下旧值
+     */
+    @Test
+    void invalidationDuringL2ReadDropsStaleFill() {
+        TwoLevelCache[] holder = new TwoLevelCache[1];
+        RedisTemplate<String, Object> racing = racingTemplate(() -> holder[0].evictLocal("k"));
+        TwoLevelCache cache = cache("race", racing);
+        holder[0] = cache;
+        redisTemplate.opsForValue().set("cache:race:k", "old");
+
+        assertEquals("old", cache.get("k").get());
+        // 其他节点已写入新值，L1 不应命中旧值
+        redisTemplate.opsForValue().set("cache:race:k", "new");
+        assertEquals("new", cache.get("k").get());
+        assertEquals(0L, cache.stats().get("l1Hits"));
+    }
+
+    /**
+     * 等待中的线程拿到与加载线程相同的异常：受检异常包装为 ValueRetrievalException，Error 原样抛出
+     */
+    @Test
+    void waitersSeeLoaderFailure() throws Exception {
+        TwoLevelCache cache = cache("failures", redisTemplate);
+        assertInstanceOf(ValueRetrievalException.class, concurrentFailure(cache, "checked", new IOException("down")));
+        assertInstanceOf(StackOverflowError.class, concurrentFailure(cache, "error", new StackOverflowError()));
+    }
+
+    private static Throwable concurrentFailure(TwoLevelCache cache, String key, Throwable failure) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> loader = executor.submit(() -> cache.get(key, () -> {
+                started.countDown();
+                release.await();
+                if (failure instanceof Error error) {
+                    throw error;
+                }
+                throw (Exception) failure;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Object> waiter = executor.submit(() -> cache.get(key, () -> "unused"));
+            Thread.sleep(200);
+            release.countDown();
+            ExecutionException loaderFailure = assertThrows(ExecutionException.class,
+                () -> loader.get(5, TimeUnit.SECONDS));
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class,
+                () -> waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(loaderFailure.getCause().getClass(), waiterFailure.getCause().getClass());
+            return waiterFailure.getCause();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loaderNullIsCachedLocallyOnly() {
+        TwoLevelCache cache = cache("nulls", redisTemplate);
+        AtomicInteger loads = new AtomicInteger();
+        assertNull(cache.get("none", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("none", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, loads.get());
+        assertNull(redisTemplate.opsForValue().get("cache:nulls:none"));
+    }
+
+    private static TwoLevelCache cache(String name, RedisTemplate<String, Object> template) {
+        return new TwoLevelCache(name, 1000, Duration.ofMinutes(5), template, publisher);
+    }
+
+    /**
+     * 每次 GET 返回前执行 onGet 的模板，模拟读取 L2 期间到达的失效广播
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, Object> racingTemplate(Runnable onGet) {
+        ValueOperations<String, Object> delegate = redisTemplate.opsForValue();
+        ValueOperations<String, Object> operations = (ValueOperations<String, Object>) Proxy.newProxyInstance(
+            TwoLevelCacheTest.class.getClassLoader(), new Class<?>[]{ValueOperations.class}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if ("get".equals(method.getName())) {
+                    onGet.run();
+                }
+                return result;
+            });
+        RedisTemplate<String, Object> template = new RedisTemplate<>() {
+            @Override
+            public ValueOperations<String, Object> opsForValue() {
+                return operations;
+            }
+        };
+        template.setConnectionFactory(connectionFactory);
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -0,0 +1,143 @@
+package com.manqiyou.common.redis.serializer;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.manqiyou.common.redis.config.RedisConfig;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * CompactRedisSerializer 的类型白名单，以及与默认 JSON 序列化的体积和耗时对比
+ */
+class CompactRedisSerializerTest {
+
+    private final RedisTypeRegistry registry = new RedisTypeRegistry().register(100, RouteItem.class);
+    private final CompactRedisSerializer compact = new CompactRedisSerializer(registry, 1024);
+
+    @Test
+    void roundTripsRegisteredTypes() {
+        Map<String, Object> value = new HashMap<>();
+        value.put("route", route(1));
+        value.put("list", new ArrayList<>(List.of(route(2), route(3))));
+        value.put("price", new BigDecimal("12.50"));
+        assertEquals(value, compact.deserialize(compact.serialize(value)));
+
+        List<RouteItem> large = routes(50);
+        byte[] bytes = compact.serialize(large);
+        assertEquals(1, bytes[0], "超过阈值应压缩");
+        assertEquals(large, compact.deserialize(bytes));
+    }
+
+    @Test
+    void rejectsUnregisteredTypeOnWrite() {
+        assertThrows(SerializationException.class, () -> compact.serialize(new Unregistered()));
+    }
+
+    /**
+     * 伪造的类名类型ID不会被加载，即使该类确实存在
+     */
+    @Test
+    void rejectsClassNameTypeIdOnRead() throws Exception {
+        byte[] smile = new SmileMapper().writeValueAsBytes(List.of(Unregistered.class.getName(), Map.of()));
+        byte[] payload = new byte[smile.length + 1];
+        System.arraycopy(smile, 0, payload, 1, smile.length);
+        assertThrows(SerializationException.class, () -> compact.deserialize(payload));
+
+        byte[] jdkClass = new SmileMapper().writeValueAsBytes(List.of("java.util.concurrent.ConcurrentLinkedQueue", List.of()));
+        byte[] jdkPayload = new byte[jdkClass.length + 1];
+        System.arraycopy(jdkClass, 0, jdkPayload, 1, jdkClass.length);
+        assertThrows(SerializationException.class, () -> compact.deserialize(jdkPayload));
+    }
+
+    /**
+     * 单个对象与 50 个对象列表的编码体积，以及序列化+反序列化一次的平均耗时
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstJsonSerializer() {
+        RedisSerializer<Object> json = RedisConfig.jsonSerializer();
+        Object single = route(1);
+        Object list = routes(50);
+        for (Object value : List.of(single, list)) {
+            String label = value == single ? "single" : "list(50)";
+            long jsonNanos = measure(json, value);
+            long compactNanos = measure(compact, value);
+            System.out.printf("CompactRedisSerializer %s: %d bytes, %d ns/op; json: %d bytes, %d ns/op%n", label,
+                compact.serialize(value).length, compactNanos, json.serialize(value).length, jsonNanos);
+        }
+    }
+
+    private static long measure(RedisSerializer<Object> serializer, Object value) {
+        int iterations = value instanceof List ? 5_000 : 100_000;
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static List<RouteItem> routes(int count) {
+        List<RouteItem> routes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            routes.add(route(i));
+        }
+        return routes;
+    }
+
+    private static RouteItem route(int i) {
+        RouteItem route = new RouteItem();
+        route.id = 1000L + i;
+        route.title = "川西环线" + i + "日游";
+        route.destination = "成都";
+        route.price = new BigDecimal("2999.00").add(BigDecimal.valueOf(i));
+        route.duration = 5 + i % 3;
+        route.tags = new ArrayList<>(List.of("自驾", "摄影", "高原"));
+        route.images = new ArrayList<>(List.of("/brand_assets/routes/page" + i + "_img0.jpeg",
+            "/brand_assets/routes/page" + i + "_img1.jpeg"));
+        route.createdAt = LocalDateTime.of(2026, 1, 1, 8, 0).plusDays(i);
+        return route;
+    }
+
+    static class RouteItem {
+        Long id;
+        String title;
+        String destination;
+        BigDecimal price;
+        int duration;
+        List<String> tags;
+        List<String> images;
+        LocalDateTime createdAt;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RouteItem other && Objects.equals(id, other.id) && Objects.equals(title, other.title)
+                && Objects.equals(destination, other.destination) && Objects.equals(price, other.price)
+                && duration == other.duration && Objects.equals(tags, other.tags)
+                && Objects.equals(images, other.images) && Objects.equals(createdAt, other.createdAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, title);
+        }
+    }
+
+    static class Unregistered {
+        String name = "x";
+    }
+}
@@ -0,0 +1,145 @@
+package com.manqiyou.common.redis.service;
+
+import com.manqiyou.common.redis.MiniRedisServer;
+import com.manqiyou.common.redis.config.RedisConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RedisBatch 各命令的管道回复类型，以及管道与逐条执行的耗时对比
+ */
+class RedisBatchTest {
+
+    private static MiniRedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new MiniRedisServer();
+        connectionFactory = server.connectionFactory();
+        redisTemplate = RedisConfig.createTemplate(connectionFactory, RedisConfig.jsonSerializer());
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void slotsHoldDeclaredTypes() {
+        redisTemplate.opsForValue().set("existing", "v");
+
+        RedisBatch batch = new RedisBatch(redisTemplate);
+        RedisBatch.Slot<Boolean> set = batch.set("a", "value-a");
+        RedisBatch.Slot<Boolean> setWithTtl = batch.set("b", 2, 60, TimeUnit.SECONDS);
+        RedisBatch.Slot<String> get = batch.get("a");
+        RedisBatch.Slot<Object> missing = batch.get("missing");
+        RedisBatch.Slot<Long> increment = batch.increment("counter", 5);
+        RedisBatch.Slot<Boolean> expire = batch.expire("counter", 60, TimeUnit.SECONDS);
+        RedisBatch.Slot<Boolean> hasKey = batch.hasKey("existing");
+        RedisBatch.Slot<Boolean> deleted = batch.delete("existing");
+        RedisBatch.Slot<Boolean> deletedMissing = batch.delete("missing");
+        batch.execute();
+
+        assertEquals(Boolean.TRUE, set.get());
+        assertEquals(Boolean.TRUE, setWithTtl.get());
+        assertEquals("value-a", get.get());
+        assertNull(missing.get());
+        assertEquals(5L, increment.get());
+        assertEquals(Boolean.TRUE, expire.get());
+        assertEquals(Boolean.TRUE, hasKey.get());
+        // 读取即按声明类型使用，回复类型不符时这里会 ClassCastException
+        boolean wasDeleted = deleted.get();
+        boolean wasDeletedMissing = deletedMissing.get();
+        assertTrue(wasDeleted);
+        assertFalse(wasDeletedMissing);
+        assertFalse(redisTemplate.hasKey("existing"));
+    }
+
+    @Test
+    void slotRejectsReadBeforeExecuteAndBatchRunsOnce() {
+        RedisBatch batch = new RedisBatch(redisTemplate);
+        RedisBatch.Slot<Object> slot = batch.get("a");
+        assertThrows(IllegalStateException.class, slot::get);
+        batch.execute();
+        assertThrows(IllegalStateException.class, batch::execute);
+        assertThrows(IllegalStateException.class, () -> batch.get("b"));
+    }
+
+    /**
+     * 1000 个 key 的读取：逐条 GET（每条一次往返）与一次管道的每 key 耗时
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkPipelinedAgainstSequential() {
+        int keys = 1000;
+        int rounds = 20;
+        for (int i = 0; i < keys; i++) {
+            redisTemplate.opsForValue().set("bench:" + i, "value-" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            readSequential(keys);
+            readPipelined(keys);
+        }
+
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            readSequential(keys);
+        }
+        double sequential = (double) (System.nanoTime() - start) / rounds / keys;
+
+        start = System.nanoTime();
+        List<Object> pipelined = null;
+        for (int round = 0; round < rounds; round++) {
+            pipelined = readPipelined(keys);
+        }
+        double batched = (double) (System.nanoTime() - start) / rounds / keys;
+        assertEquals("value-999", pipelined.get(999));
+
+        System.out.printf("RedisBatch: %.0f ns/key pipelined, %.0f ns/key sequential (%d keys, loopback)%n",
+            batched, sequential, keys);
+    }
+
+    private static void readSequential(int keys) {
+        for (int i = 0; i < keys; i++) {
+            redisTemplate.opsForValue().get("bench:" + i);
+        }
+    }
+
+    private static List<Object> readPipelined(int keys) {
+        RedisBatch batch = new RedisBatch(redisTemplate);
+        List<RedisBatch.Slot<Object>> slots = new ArrayList<>(keys);
+        for (int i = 0; i < keys; i++) {
+            slots.add(batch.get("bench:" + i));
+        }
+        batch.execute();
+        List<Object> values = new ArrayList<>(keys);
+        slots.forEach(slot -> values.add(slot.get()));
+        return values;
+    }
+}
@@ -0,0 +1,167 @@
+package com.manqiyou.common.redis.service;
+
+import com.manqiyou.common.redis.MiniRedisServer;
+import com.manqiyou.common.redis.config.RedisConfig;
+import com.manqiyou.common.redis.serializer.CompactRedisSerializer;
+import com.manqiyou.common.redis.serializer.RedisTypeRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * getOrLoad 遇到无法序列化或反序列化的缓存值时按未命中处理；后台刷新放弃时不影响未命中的请求
+ */
+class RedisServiceTest {
+
+    private static MiniRedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final RedisService redisService = new RedisService(redisTemplate);
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new MiniRedisServer();
+        connectionFactory = server.connectionFactory();
+        redisTemplate = RedisConfig.createTemplate(connectionFactory, RedisConfig.jsonSerializer());
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @AfterEach
+    void shutdown() {
+        redisService.shutdown();
+    }
+
+    @Test
+    void undecodableValueIsReloadedAndOverwritten() {
+        stringRedisTemplate.opsForValue().set("corrupt", "{not json");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("fresh", redisService.getOrLoad("corrupt", Duration.ofMinutes(1), () -> {
+            loads.incrementAndGet();
+            return "fresh";
+        }));
+        assertEquals(1, loads.get());
+        CachedValue stored = assertInstanceOf(CachedValue.class, redisTemplate.opsForValue().get("corrupt"));
+        assertEquals("fresh", stored.getValue());
+    }
+
+    /**
+     * 值无法写入（紧凑序列化下类型未注册）时仍返回加载结果
+     */
+    @Test
+    void unserializableValueIsStillReturned() {
+        RedisTemplate<String, Object> compactTemplate = RedisConfig.createTemplate(connectionFactory,
+            new CompactRedisSerializer(new RedisTypeRegistry(), 1024));
+        RedisService compactService = new RedisService(compactTemplate);
+        try {
+            Unregistered value = new Unregistered();
+            assertEquals(value, compactService.getOrLoad("unregistered", Duration.ofMinutes(1), () -> value));
+            // 已注册类型（CachedValue 包装）正常写入
+            assertEquals("value", compactService.getOrLoad("registered", Duration.ofMinutes(1), () -> "value"));
+            assertInstanceOf(CachedValue.class, compactTemplate.opsForValue().get("registered"));
+        } finally {
+            compactService.shutdown();
+        }
+    }
+
+    /**
+     * 其他节点持有加载锁时后台刷新放弃；刷新进行中缓存被删除，未命中的请求自行等待加载结果，不拿到刷新的空结果
+     */
+    @Test
+    void missDuringAbandonedRefreshDoesNotReturnNull() throws Exception {
+        String key = "refresh-race";
+        CountDownLatch refreshLocking = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        RedisService racingService = new RedisService(blockingRefreshLockTemplate(refreshLocking, releaseRefresh));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForValue().set(key, new CachedValue("stale", 10, now - 1), Duration.ofMinutes(1));
+            stringRedisTemplate.opsForValue().set("lock:load:" + key, "other-node", Duration.ofMinutes(1));
+
+            // 已逻辑过期，返回旧值并触发后台刷新，刷新阻塞在获取加载锁
+            assertEquals("stale", racingService.getOrLoad(key, Duration.ofMinutes(1), () -> "local"));
+            assertTrue(refreshLocking.await(5, TimeUnit.SECONDS));
+
+            redisTemplate.delete(key);
+            Future<Object> miss = executor.submit(() -> racingService.getOrLoad(key, Duration.ofMinutes(1),
+                () -> "local"));
+            Thread.sleep(100);
+            releaseRefresh.countDown();
+            // 持有锁的节点写入新值
+            Thread.sleep(100);
+            redisTemplate.opsForValue().set(key,
+                new CachedValue("other", 10, System.currentTimeMillis() + 60_000), Duration.ofMinutes(1));
+
+            assertEquals("other", miss.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseRefresh.countDown();
+            executor.shutdownNow();
+            racingService.shutdown();
+        }
+    }
+
+    /**
+     * 后台刷新线程获取加载锁时先通知 locking，再等待 release
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, Object> blockingRefreshLockTemplate(CountDownLatch locking,
+                                                                            CountDownLatch release) {
+        ValueOperations<String, Object> delegate = redisTemplate.opsForValue();
+        ValueOperations<String, Object> operations = (ValueOperations<String, Object>) Proxy.newProxyInstance(
+            RedisServiceTest.class.getClassLoader(), new Class<?>[]{ValueOperations.class}, (proxy, method, args) -> {
+                if ("setIfAbsent".equals(method.getName())
+                    && Thread.currentThread().getName().equals("redis-cache-refresh")) {
+                    locking.countDown();
+                    release.await();
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        RedisTemplate<String, Object> template = new RedisTemplate<>() {
+            @Override
+            public ValueOperations<String, Object> opsForValue() {
+                return operations;
+            }
+        };
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(redisTemplate.getKeySerializer());
+        template.setValueSerializer(redisTemplate.getValueSerializer());
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    static class Unregistered {
+        String name = "x";
+    }
+}
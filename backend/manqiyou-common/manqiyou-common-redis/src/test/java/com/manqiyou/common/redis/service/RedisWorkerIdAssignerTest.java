@@ -0,0 +1,113 @@
+package com.manqiyou.common.redis.service;
+
+import com.manqiyou.common.core.id.SnowflakeIdGenerator;
+import com.manqiyou.common.redis.MiniRedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 节点ID租约丢失后重新获取，续约持续失败超过有效期时停止生成ID
+ */
+class RedisWorkerIdAssignerTest {
+
+    private static MiniRedisServer server;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private ScriptedTemplate redis;
+    private RedisWorkerIdAssigner assigner;
+
+    @BeforeAll
+    static void start() throws Exception {
+        server = new MiniRedisServer();
+        connectionFactory = server.connectionFactory();
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        connectionFactory.destroy();
+        server.close();
+    }
+
+    @AfterEach
+    void release() {
+        assigner.release();
+    }
+
+    @Test
+    void reacquiresAnotherWorkerIdWhenLeaseIsTaken() {
+        redis = new ScriptedTemplate();
+        assigner = new RedisWorkerIdAssigner(redis, Duration.ofMinutes(1));
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(assigner, 5000);
+        long original = generator.getWorkerId();
+
+        // 租约过期后被其他节点抢占
+        redis.opsForValue().set("id:worker:" + original, "other-node");
+        assigner.renew();
+
+        long reassigned = assigner.current();
+        assertNotEquals(original, reassigned);
+        assertEquals("other-node", redis.opsForValue().get("id:worker:" + original));
+        assertEquals(reassigned, (generator.nextId() >>> SnowflakeIdGenerator.SEQUENCE_BITS)
+            & SnowflakeIdGenerator.MAX_WORKER_ID);
+    }
+
+    @Test
+    void stopsIssuingIdsOnceLeaseCannotBeConfirmed() throws InterruptedException {
+        redis = new ScriptedTemplate();
+        assigner = new RedisWorkerIdAssigner(redis, Duration.ofMillis(300));
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(assigner, 5000);
+        generator.nextId();
+
+        redis.failing = true;
+        TimeUnit.MILLISECONDS.sleep(400);
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        // Redis 恢复后续约发现租约已过期，重新获取节点ID
+        redis.failing = false;
+        assigner.renew();
+        generator.nextId();
+    }
+
+    /**
+     * 按 RENEW_SCRIPT 的语义执行脚本（替身服务器不支持 Lua），可模拟 Redis 不可用
+     */
+    private static class ScriptedTemplate extends StringRedisTemplate {
+
+        volatile boolean failing;
+
+        ScriptedTemplate() {
+            super(connectionFactory);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            if (failing) {
+                throw new RedisConnectionFailureException("Redis 不可用");
+            }
+            String key = keys.get(0);
+            if (!args[0].equals(opsForValue().get(key))) {
+                return (T) Long.valueOf(0);
+            }
+            if ("0".equals(args[1])) {
+                return (T) Long.valueOf(Boolean.TRUE.equals(delete(key)) ? 1 : 0);
+            }
+            return (T) Long.valueOf(Boolean.TRUE.equals(
+                expire(key, Long.parseLong((String) args[1]), TimeUnit.MILLISECONDS)) ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.manqiyou.common.security.revocation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内Token吊销存储（单节点、测试用）
+ * 与Redis实现一样先经布隆过滤器判断；记录数超过预期容量时清理过期记录并重建过滤器
+ */
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final int expectedInsertions;
+    private final double fpp;
+    private volatile BloomFilter filter;
+
+    public InMemoryTokenRevocationStore(int expectedInsertions, double fpp) {
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    @Override
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenId, expiresAt);
+        filter.put(tokenId);
+        if (revoked.size() > expectedInsertions) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public boolean mightBeRevoked(String tokenId) {
+        return filter.mightContain(tokenId);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (!mightBeRevoked(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            revoked.remove(tokenId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 清理已过期记录并重建布隆过滤器
+     */
+    private synchronized void rebuild() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        BloomFilter rebuilt = new BloomFilter(expectedInsertions, fpp);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,147 @@
+package com.manqiyou.common.security.revocation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis Token吊销存储（多节点共享）
+ * 吊销记录以 auth:revoked:{jti} 写入Redis，TTL为Token剩余有效期，并通过频道广播给各节点。
+ * 每个节点把吊销ID镜像到本地布隆过滤器，只有过滤器命中的Token才需要查询Redis。
+ * 过滤器定期按Redis中现存记录重建，以剔除已过期ID并补上可能漏收的广播。
+ * 启动时同步完成首次重建；首次重建成功前不使用本地过滤器，直接查询Redis。
+ */
+@Slf4j
+public class RedisTokenRevocationStore implements TokenRevocationStore {
+
+    private static final String KEY_PREFIX = "auth:revoked:";
+    private static final String CHANNEL = "auth:revoked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int expectedInsertions;
+    private final double fpp;
+    private final long rebuildMillis;
+
+    private volatile BloomFilter filter;
+    /**
+     * 首次按Redis现存记录重建成功前，本地过滤器不完整（缺少启动前吊销的ID），此时每次都查询Redis
+     */
+    private volatile boolean filterLoaded;
+    /**
+     * 重建期间的新过滤器，广播同时写入，避免重建过程中漏掉新吊销的ID
+     */
+    private volatile BloomFilter pending;
+
+    private RedisMessageListenerContainer container;
+    private ScheduledExecutorService scheduler;
+
+    public RedisTokenRevocationStore(StringRedisTemplate redisTemplate, int expectedInsertions, double fpp,
+                                     long rebuildMillis) {
+        this.redisTemplate = redisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.rebuildMillis = rebuildMillis;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    /**
+     * 订阅吊销广播、同步加载现存记录并启动定期重建
+     */
+    public void start() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisTemplate.getRequiredConnectionFactory());
+        container.addMessageListener(this::onMessage, new ChannelTopic(CHANNEL));
+        try {
+            container.afterPropertiesSet();
+            container.start();
+        } catch (RuntimeException e) {
+            log.warn("订阅Token吊销频道失败，依赖定期重建同步: {}", e.getMessage());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-revocation-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuild();
+        scheduler.scheduleWithFixedDelay(this::rebuild, rebuildMillis, rebuildMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception e) {
+                log.debug("关闭Token吊销订阅失败", e);
+            }
+        }
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAt) {
+        long ttl = expiresAt - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return;
+        }
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenId, "1", Duration.ofMillis(ttl));
+        add(tokenId);
+        redisTemplate.convertAndSend(CHANNEL, tokenId);
+    }
+
+    @Override
+    public boolean mightBeRevoked(String tokenId) {
+        return !filterLoaded || filter.mightContain(tokenId);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (!mightBeRevoked(tokenId)) {
+            return false;
+        }
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenId));
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void add(String tokenId) {
+        filter.put(tokenId);
+        BloomFilter next = pending;
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+
+    /**
+     * 按Redis中现存的吊销记录重建过滤器；失败时保留当前过滤器
+     */
+    void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(expectedInsertions, fpp);
+        pending = rebuilt;
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                rebuilt.put(cursor.next().substring(KEY_PREFIX.length()));
+            }
+            filter = rebuilt;
+            filterLoaded = true;
+        } catch (RuntimeException e) {
+            log.warn("重建Token吊销过滤器失败: {}", e.getMessage());
+        } finally {
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.manqiyou.common.security.revocation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Token吊销配置
+ * jwt.revocation.store 为 redis（默认，多节点共享）或 memory（单节点、测试）
+ */
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "redis", matchIfMissing = true)
+    public RedisTokenRevocationStore redisTokenRevocationStore(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+            @Value("${jwt.revocation.fpp:0.01}") double fpp,
+            @Value("${jwt.revocation.rebuild-seconds:600}") long rebuildSeconds) {
+        return new RedisTokenRevocationStore(stringRedisTemplate, expectedInsertions, fpp, rebuildSeconds * 1000);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jwt.revocation.store", havingValue = "memory")
+    public InMemoryTokenRevocationStore inMemoryTokenRevocationStore(
+            @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+            @Value("${jwt.revocation.fpp:0.01}") double fpp) {
+        return new InMemoryTokenRevocationStore(expectedInsertions, fpp);
+    }
+}
@@ -0,0 +1,26 @@
+package com.manqiyou.common.security.revocation;
+
+/**
+ * Token吊销存储
+ * 按Token ID（jti）记录已吊销的Token，记录保留到Token自身过期为止
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * 吊销Token
+     *
+     * @param tokenId   Token ID（jti）
+     * @param expiresAt Token过期时间（毫秒时间戳）
+     */
+    void revoke(String tokenId, long expiresAt);
+
+    /**
+     * 本地快速判断：返回false时一定未吊销，不产生任何网络访问；返回true时需再调用 isRevoked 确认
+     */
+    boolean mightBeRevoked(String tokenId);
+
+    /**
+     * 是否已吊销；本地判断为可能吊销时才查询后端存储，可能阻塞
+     */
+    boolean isRevoked(String tokenId);
+}
@@ -1,23 +1,39 @@
 package com.manqiyou.common.security.util;
 
+import com.manqiyou.common.security.revocation.TokenRevocationStore;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWT工具类
+ * 签名密钥和解析器只构建一次；验证通过的Token按摘要缓存其Claims，缓存项在Token自身过期时失效，
+ * 缓存满时抽样淘汰最早过期的项。同一Token的重复校验不再做HMAC验签和JSON解析。
+ * 每个Token带有唯一ID（jti），登出、刷新时可通过 revokeToken 吊销
  */
 @Component
 public class JwtUtil {
 
+    private static final int EVICTION_SAMPLES = 16;
+
     @Value("${jwt.secret:manqiyou-secret-key-must-be-at-least-256-bits-long}")
     private String secret;
 
@@ -27,8 +43,24 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration:604800000}")
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    @Autowired(required = false)
+    private TokenRevocationStore revocationStore;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Token摘要 -> 已验证信息
+     */
+    private final Map<String, TokenInfo> verified = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     /**
@@ -54,54 +86,161 @@ public class JwtUtil {
     private String createToken(Map<String, Object> claims, Long expirationTime) {
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * 解析Token
+     * 验证Token并返回用户ID、过期时间等信息，Token无效、已过期或已吊销时返回null。
+     * 吊销检查先查本地布隆过滤器，可能吊销时才访问Redis（阻塞）
+     */
+    public TokenInfo verify(String token) {
+        TokenInfo info = verifySignature(token);
+        return info == null || isRevoked(info) ? null : info;
+    }
+
+    /**
+     * 只校验签名和有效期，不检查吊销，Token无效或已过期时返回null。
+     * 仅供自行检查吊销的调用方使用（如网关在非阻塞线程之外查询吊销记录）
+     */
+    public TokenInfo verifySignature(String token) {
+        try {
+            return verifyOrThrow(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析Token（含吊销检查），Token无效、已过期或已吊销时抛出 JwtException
      */
     public Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifyNotRevoked(token).getClaims();
     }
 
     /**
-     * 获取用户ID
+     * 获取用户ID（含吊销检查），Token无效、已过期或已吊销时抛出 JwtException
      */
     public String getUserId(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("userId", String.class);
+        return verifyNotRevoked(token).getUserId();
     }
 
     /**
-     * 验证Token是否有效
+     * 验证Token是否有效（含吊销检查，可能访问Redis）
      */
     public boolean validateToken(String token) {
-        try {
-            Claims claims = parseToken(token);
-            return !claims.getExpiration().before(new Date());
-        } catch (Exception e) {
+        return verify(token) != null;
+    }
+
+    /**
+     * Token是否已吊销；本地布隆过滤器未命中时不访问Redis
+     */
+    public boolean isRevoked(TokenInfo info) {
+        return revocationStore != null && info.getTokenId() != null && revocationStore.isRevoked(info.getTokenId());
+    }
+
+    /**
+     * 吊销Token（登出、刷新时调用），吊销记录保留到Token过期；Token无效或未启用吊销时返回false
+     */
+    public boolean revokeToken(String token) {
+        TokenInfo info = verifySignature(token);
+        if (info == null || info.getTokenId() == null || revocationStore == null) {
             return false;
         }
+        revocationStore.revoke(info.getTokenId(), info.getExpiresAt());
+        return true;
+    }
+
+    public TokenRevocationStore getRevocationStore() {
+        return revocationStore;
     }
 
     /**
      * 判断Token是否即将过期（5分钟内）
      */
     public boolean isTokenExpiringSoon(String token) {
+        TokenInfo info = verify(token);
+        return info == null || info.isExpiringSoon();
+    }
+
+    /**
+     * 已缓存的Token数
+     */
+    public int cachedTokenCount() {
+        return verified.size();
+    }
+
+    private TokenInfo verifyNotRevoked(String token) {
+        TokenInfo info = verifyOrThrow(token);
+        if (isRevoked(info)) {
+            throw new JwtException("Token已吊销");
+        }
+        return info;
+    }
+
+    private TokenInfo verifyOrThrow(String token) {
+        String digest = digest(token);
+        TokenInfo cached = verified.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verified.remove(digest);
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        TokenInfo info = new TokenInfo(claims);
+        if (info.isExpired()) {
+            throw new ExpiredJwtException(null, claims, "Token已过期");
+        }
+        cache(digest, info);
+        return info;
+    }
+
+    /**
+     * 写入缓存；已满时先抽样淘汰一项，缓存大小为 0 时不缓存
+     */
+    private void cache(String digest, TokenInfo info) {
+        if (claimsCacheMaxSize <= 0) {
+            return;
+        }
+        if (verified.size() >= claimsCacheMaxSize) {
+            evictOne();
+        }
+        verified.put(digest, info);
+    }
+
+    /**
+     * 抽样淘汰：在少量缓存项中移除最早过期的一项（已过期的自然最先被选中），
+     * 不做全量扫描，读取路径不加锁；并发写入时缓存项数可能短暂略超上限
+     */
+    private void evictOne() {
+        String victim = null;
+        long earliest = Long.MAX_VALUE;
+        int sampled = 0;
+        for (Map.Entry<String, TokenInfo> entry : verified.entrySet()) {
+            long expiresAt = entry.getValue().getExpiresAt();
+            if (expiresAt < earliest) {
+                victim = entry.getKey();
+                earliest = expiresAt;
+            }
+            if (++sampled >= EVICTION_SAMPLES) {
+                break;
+            }
+        }
+        if (victim != null) {
+            verified.remove(victim);
+        }
+    }
+
+    private static String digest(String token) {
         try {
-            Claims claims = parseToken(token);
-            Date expiration = claims.getExpiration();
-            long diff = expiration.getTime() - System.currentTimeMillis();
-            return diff < 5 * 60 * 1000;
-        } catch (Exception e) {
-            return true;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
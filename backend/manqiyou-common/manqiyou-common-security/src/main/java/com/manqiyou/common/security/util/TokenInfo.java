@@ -0,0 +1,59 @@
+package com.manqiyou.common.security.util;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * 已验证的Token信息
+ */
+public class TokenInfo {
+
+    /**
+     * 即将过期的阈值（5分钟）
+     */
+    static final long EXPIRING_SOON_MILLIS = 5 * 60 * 1000;
+
+    private final Claims claims;
+    private final String userId;
+    private final String tokenId;
+    private final long expiresAt;
+
+    TokenInfo(Claims claims) {
+        this.claims = claims;
+        this.userId = claims.get("userId", String.class);
+        this.tokenId = claims.getId();
+        this.expiresAt = claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime();
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Token ID（jti），用于吊销；早期签发的Token可能为null
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+
+    /**
+     * 是否即将过期（5分钟内）
+     */
+    public boolean isExpiringSoon() {
+        return expiresAt - System.currentTimeMillis() < EXPIRING_SOON_MILLIS;
+    }
+}
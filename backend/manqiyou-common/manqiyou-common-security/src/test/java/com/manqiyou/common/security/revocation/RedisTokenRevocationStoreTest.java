@@ -0,0 +1,76 @@
+package com.manqiyou.common.security.revocation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 首次重建完成前不信任本地过滤器：启动前已吊销的Token仍通过Redis判定为已吊销
+ */
+class RedisTokenRevocationStoreTest {
+
+    @Test
+    void checksRedisUntilFirstRebuildSucceeds() {
+        StubTemplate redis = new StubTemplate();
+        redis.keys.add("auth:revoked:before-start");
+        RedisTokenRevocationStore store = new RedisTokenRevocationStore(redis, 1000, 0.01, 60_000);
+
+        assertTrue(store.isRevoked("before-start"));
+        redis.scanFails = true;
+        store.rebuild();
+        assertTrue(store.isRevoked("before-start"));
+        assertFalse(store.isRevoked("never-revoked"));
+        assertEquals(3, redis.lookups.get());
+
+        redis.scanFails = false;
+        store.rebuild();
+        assertTrue(store.isRevoked("before-start"));
+        // 过滤器已加载，未命中的ID不再查询Redis
+        assertFalse(store.mightBeRevoked("never-revoked"));
+        assertFalse(store.isRevoked("never-revoked"));
+        assertEquals(4, redis.lookups.get());
+    }
+
+    /**
+     * 只实现 hasKey 和 scan 的模板
+     */
+    private static class StubTemplate extends StringRedisTemplate {
+        final Set<String> keys = ConcurrentHashMap.newKeySet();
+        final AtomicInteger lookups = new AtomicInteger();
+        volatile boolean scanFails;
+
+        @Override
+        public Boolean hasKey(String key) {
+            lookups.incrementAndGet();
+            return keys.contains(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Cursor<String> scan(ScanOptions options) {
+            if (scanFails) {
+                throw new RedisConnectionFailureException("Redis 不可用");
+            }
+            Iterator<String> iterator = Set.copyOf(keys).iterator();
+            return (Cursor<String>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Cursor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hasNext" -> iterator.hasNext();
+                    case "next" -> iterator.next();
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        }
+    }
+}
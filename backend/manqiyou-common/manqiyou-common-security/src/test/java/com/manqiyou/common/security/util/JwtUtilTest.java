@@ -0,0 +1,117 @@
+package com.manqiyou.common.security.util;
+
+import com.manqiyou.common.security.revocation.InMemoryTokenRevocationStore;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    static JwtUtil jwtUtil(int cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-must-be-at-least-256-bits-long-for-hmac");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7_200_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", cacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    void verifiesAndRejectsTokens() {
+        JwtUtil jwtUtil = jwtUtil(100);
+        String token = jwtUtil.generateToken("42", "13800000000");
+        TokenInfo info = jwtUtil.verify(token);
+        assertNotNull(info);
+        assertEquals("42", info.getUserId());
+        int middle = token.lastIndexOf('.') + 5;
+        char flipped = token.charAt(middle) == 'A' ? 'B' : 'A';
+        assertNull(jwtUtil.verify(token.substring(0, middle) + flipped + token.substring(middle + 1)));
+        assertNull(jwtUtil.verify("not-a-token"));
+    }
+
+    @Test
+    void revokedTokenFailsEveryVerificationPath() {
+        JwtUtil jwtUtil = jwtUtil(100);
+        ReflectionTestUtils.setField(jwtUtil, "revocationStore", new InMemoryTokenRevocationStore(1000, 0.01));
+        String token = jwtUtil.generateToken("42", "13800000000");
+        assertEquals("42", jwtUtil.getUserId(token));
+
+        assertTrue(jwtUtil.revokeToken(token));
+        assertNull(jwtUtil.verify(token));
+        assertThrows(JwtException.class, () -> jwtUtil.getUserId(token));
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(token));
+        assertFalse(jwtUtil.validateToken(token));
+        // 只验签的路径留给自行检查吊销的网关
+        assertNotNull(jwtUtil.verifySignature(token));
+    }
+
+    /**
+     * 缓存已满后新 Token 仍会被缓存（淘汰旧项），缓存大小保持在上限内
+     */
+    @Test
+    void fullCacheEvictsInsteadOfRefusingNewTokens() {
+        JwtUtil jwtUtil = jwtUtil(100);
+        for (int i = 0; i < 1000; i++) {
+            assertNotNull(jwtUtil.verify(jwtUtil.generateToken(String.valueOf(i), "13800000000")));
+        }
+        assertTrue(jwtUtil.cachedTokenCount() <= 100, "cached " + jwtUtil.cachedTokenCount());
+
+        String fresh = jwtUtil.generateToken("fresh", "13800000000");
+        jwtUtil.verify(fresh);
+        jwtUtil.verify(fresh);
+        assertEquals(100, jwtUtil.cachedTokenCount());
+    }
+
+    /**
+     * 同一 Token 重复校验：命中缓存 vs 每次验签解析；以及缓存已满时校验新 Token 的耗时
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkCachedVsUncachedVerification() {
+        int iterations = 200_000;
+        JwtUtil cached = jwtUtil(10_000);
+        JwtUtil uncached = jwtUtil(0);
+        String token = cached.generateToken("42", "13800000000");
+
+        double cachedNanos = nanosPerVerify(cached, token, iterations);
+        double uncachedNanos = nanosPerVerify(uncached, token, iterations / 10);
+
+        JwtUtil full = jwtUtil(10_000);
+        String[] tokens = new String[40_000];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = full.generateToken(String.valueOf(i), "13800000000");
+        }
+        int half = tokens.length / 2;
+        for (int i = 0; i < half; i++) {
+            full.verify(tokens[i]);
+        }
+        long start = System.nanoTime();
+        for (int i = half; i < tokens.length; i++) {
+            full.verify(tokens[i]);
+        }
+        double missWhenFull = (double) (System.nanoTime() - start) / half;
+
+        System.out.printf("JwtUtil.verify: %.0f ns cached, %.0f ns uncached, %.0f ns per new token with a full %d-entry cache%n",
+            cachedNanos, uncachedNanos, missWhenFull, 10_000);
+    }
+
+    private static double nanosPerVerify(JwtUtil jwtUtil, String token, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            jwtUtil.verify(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            jwtUtil.verify(token);
+        }
+        return (double) (System.nanoTime() - start) / iterations;
+    }
+}
@@ -0,0 +1,17 @@
+package com.manqiyou.gateway.config;
+
+import com.manqiyou.common.security.revocation.TokenRevocationConfig;
+import com.manqiyou.common.security.util.JwtUtil;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 网关认证配置
+ * 网关只扫描自身包，JwtUtil 和Token吊销存储需显式引入
+ */
+@Configuration
+@Import({JwtUtil.class, TokenRevocationConfig.class})
+@EnableConfigurationProperties(GatewayAuthProperties.class)
+public class GatewayAuthConfig {
+}
@@ -0,0 +1,20 @@
+package com.manqiyou.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关认证配置
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway")
+public class GatewayAuthProperties {
+
+    /**
+     * 无需认证的路径，支持精确路径、单段通配 * 和末尾的 /**
+     */
+    private List<String> whitelist = new ArrayList<>();
+}
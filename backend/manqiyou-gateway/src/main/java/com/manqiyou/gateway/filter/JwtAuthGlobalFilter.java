@@ -0,0 +1,108 @@
+package com.manqiyou.gateway.filter;
+
+import com.manqiyou.common.security.revocation.TokenRevocationStore;
+import com.manqiyou.common.security.util.JwtUtil;
+import com.manqiyou.common.security.util.TokenInfo;
+import com.manqiyou.gateway.config.GatewayAuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 网关JWT认证过滤器
+ * 在边缘统一验证一次Token，通过后以 X-User-Id 请求头传给下游服务，下游无需重复验签。
+ * 客户端自带的 X-User-Id 一律移除，防止伪造。验签为纯CPU计算且有缓存，不阻塞事件循环；
+ * 吊销检查先查本地布隆过滤器，只有命中时才在弹性线程池上查询Redis。
+ */
+@Slf4j
+@Component
+public class JwtAuthGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"code\":401,\"message\":\"未登录或登录已过期\",\"data\":null}".getBytes(StandardCharsets.UTF_8);
+
+    private final JwtUtil jwtUtil;
+    private final PathTrie whitelist;
+
+    public JwtAuthGlobalFilter(JwtUtil jwtUtil, GatewayAuthProperties properties) {
+        this.jwtUtil = jwtUtil;
+        this.whitelist = new PathTrie(properties.getWhitelist());
+        log.info("网关认证白名单已编译，共 {} 条", properties.getWhitelist().size());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        boolean open = request.getMethod() == HttpMethod.OPTIONS || whitelist.matches(path);
+
+        TokenInfo token = verify(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        TokenRevocationStore revocationStore = jwtUtil.getRevocationStore();
+        if (token != null && token.getTokenId() != null && revocationStore != null
+                && revocationStore.mightBeRevoked(token.getTokenId())) {
+            return Mono.fromCallable(() -> revocationStore.isRevoked(token.getTokenId()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(revoked -> proceed(exchange, chain, revoked ? null : token, open));
+        }
+        return proceed(exchange, chain, token, open);
+    }
+
+    private Mono<Void> proceed(ServerWebExchange exchange, GatewayFilterChain chain, TokenInfo token, boolean open) {
+        if (token == null && !open) {
+            return unauthorized(exchange.getResponse());
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpRequest forwarded = request.mutate().headers(headers -> {
+            headers.remove(USER_ID_HEADER);
+            if (token != null && token.getUserId() != null) {
+                headers.set(USER_ID_HEADER, token.getUserId());
+            }
+        }).build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    /**
+     * 白名单路径上也会解析Token（若有），以便下游识别已登录用户
+     */
+    private TokenInfo verify(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        // 吊销检查可能访问Redis，由 filter 在 boundedElastic 上单独执行
+        return jwtUtil.verifySignature(authorization.substring(BEARER_PREFIX.length()));
+    }
+
+    private Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(UNAUTHORIZED_BODY);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    /**
+     * 在路由之前执行
+     */
+    @Override
+    public int getOrder() {
+        return -100;
+    }
+}
@@ -0,0 +1,87 @@
+package com.manqiyou.gateway.filter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路径匹配前缀树
+ * 启动时把路径模式按 "/" 分段编译成树，匹配时逐段下行，耗时只与请求路径段数有关，与模式数量无关。
+ * 支持精确段、单段通配 "*"、以及只能出现在末尾的 "**"（匹配零个或多个剩余段）。
+ */
+public final class PathTrie {
+
+    private final Node root = new Node();
+
+    public PathTrie(List<String> patterns) {
+        for (String pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    private void add(String pattern) {
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("路径模式必须以 / 开头: " + pattern);
+        }
+        String[] segments = pattern.substring(1).split("/", -1);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if ("**".equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("** 只能出现在路径模式末尾: " + pattern);
+                }
+                node.matchesRest = true;
+                return;
+            }
+            if ("*".equals(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * 路径是否匹配任一模式
+     */
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        return matches(root, path, 1);
+    }
+
+    /**
+     * 从 path[start] 开始匹配剩余段；精确段优先，失败再尝试 "*"
+     */
+    private static boolean matches(Node node, String path, int start) {
+        if (node.matchesRest) {
+            return true;
+        }
+        if (start > path.length()) {
+            return node.terminal;
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+        Node child = node.children.get(segment);
+        if (child != null && matches(child, path, end + 1)) {
+            return true;
+        }
+        return node.wildcard != null && !segment.isEmpty() && matches(node.wildcard, path, end + 1);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        private boolean terminal;
+        private boolean matchesRest;
+    }
+}
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @TableName("points_record")
 public class PointsRecord {
 
-    @TableId(type = IdType.ASSIGN_UUID)
+    @TableId(type = IdType.ASSIGN_ID)
     private String id;
 
     private String userId;
@@ -0,0 +1,32 @@
+package com.manqiyou.order.actuator;
+
+import com.manqiyou.order.expiry.OrderExpiryService;
+import com.manqiyou.order.service.OrderIntakePipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 下单流水线和超时取消的运行统计（/actuator/orderstats）
+ * 只在管理端口暴露，不经网关，不对终端用户开放
+ */
+@Component
+@Endpoint(id = "orderstats")
+@RequiredArgsConstructor
+public class OrderStatsEndpoint {
+
+    private final OrderIntakePipeline intakePipeline;
+    private final OrderExpiryService expiryService;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("intake", intakePipeline.stats());
+        stats.put("expiry", expiryService.stats());
+        return stats;
+    }
+}
@@ -0,0 +1,72 @@
+package com.manqiyou.order.controller;
+
+import com.manqiyou.common.core.exception.BusinessException;
+import com.manqiyou.common.core.result.ApiResponse;
+import com.manqiyou.common.core.result.CursorPageResult;
+import com.manqiyou.order.dto.BookingRequest;
+import com.manqiyou.order.dto.OrderSummary;
+import com.manqiyou.order.entity.Order;
+import com.manqiyou.order.service.OrderIntakePipeline;
+import com.manqiyou.order.service.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 订单 API
+ * 用户身份取自网关验签后写入的 X-User-Id 请求头
+ */
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private static final String USER_ID_HEADER = "X-User-Id";
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final OrderService orderService;
+    private final OrderIntakePipeline intakePipeline;
+
+    /**
+     * 我的订单（游标分页，按下单时间倒序）
+     * 首页不传 cursor，之后传上一页返回的 nextCursor；status 可选
+     */
+    @GetMapping
+    public ApiResponse<CursorPageResult<OrderSummary>> getMyOrders(
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        requireUser(userId);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw BusinessException.badRequest("size 取值范围为 1-" + MAX_PAGE_SIZE);
+        }
+        return ApiResponse.success(orderService.getUserOrders(userId, status, cursor, size));
+    }
+
+    /**
+     * 创建订单（异步完成，不占用请求线程）
+     */
+    @PostMapping
+    public CompletableFuture<ApiResponse<Order>> createOrder(
+            @RequestHeader(value = USER_ID_HEADER, required = false) String userId,
+            @Valid @RequestBody BookingRequest request) {
+        requireUser(userId);
+        Order order = orderService.prepare(userId, request);
+        return intakePipeline.submit(order).thenApply(ApiResponse::success);
+    }
+
+    private static void requireUser(String userId) {
+        if (userId == null || userId.isBlank()) {
+            throw BusinessException.unauthorized("未登录");
+        }
+    }
+}
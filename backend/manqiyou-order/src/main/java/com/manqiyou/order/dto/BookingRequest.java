@@ -0,0 +1,31 @@
+package com.manqiyou.order.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * 预订请求
+ */
+@Data
+public class BookingRequest {
+
+    @NotBlank(message = "线路不能为空")
+    private String routeId;
+
+    @NotBlank(message = "班期不能为空")
+    private String scheduleId;
+
+    @NotNull(message = "人数不能为空")
+    @Min(value = 1, message = "人数至少为1")
+    @Max(value = 50, message = "人数不能超过50")
+    private Integer participants;
+
+    private String contactName;
+
+    private String contactPhone;
+
+    private String remark;
+}
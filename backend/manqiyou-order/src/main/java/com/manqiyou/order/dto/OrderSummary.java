@@ -0,0 +1,48 @@
+package com.manqiyou.order.dto;
+
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.manqiyou.order.entity.Order;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单列表摘要
+ * 只包含列表展示需要的字段，均在 idx_order_user_created 索引中，可仅扫描索引
+ */
+@Data
+public class OrderSummary {
+
+    /**
+     * 摘要查询需要的字段
+     */
+    public static final List<SFunction<Order, ?>> COLUMNS = List.of(
+        Order::getId, Order::getOrderNo, Order::getRouteId, Order::getScheduleId,
+        Order::getParticipants, Order::getTotalPrice, Order::getStatus, Order::getCreatedAt
+    );
+
+    private String id;
+    private String orderNo;
+    private String routeId;
+    private String routeName;
+    private String scheduleId;
+    private Integer participants;
+    private BigDecimal totalPrice;
+    private String status;
+    private LocalDateTime createdAt;
+
+    public static OrderSummary from(Order order) {
+        OrderSummary summary = new OrderSummary();
+        summary.setId(order.getId());
+        summary.setOrderNo(order.getOrderNo());
+        summary.setRouteId(order.getRouteId());
+        summary.setScheduleId(order.getScheduleId());
+        summary.setParticipants(order.getParticipants());
+        summary.setTotalPrice(order.getTotalPrice());
+        summary.setStatus(order.getStatus());
+        summary.setCreatedAt(order.getCreatedAt());
+        return summary;
+    }
+}
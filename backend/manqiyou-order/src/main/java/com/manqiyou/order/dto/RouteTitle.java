@@ -0,0 +1,14 @@
+package com.manqiyou.order.dto;
+
+import lombok.Data;
+
+/**
+ * 线路名称
+ */
+@Data
+public class RouteTitle {
+
+    private String id;
+
+    private String title;
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @TableName("orders")
 public class Order {
 
-    @TableId(type = IdType.ASSIGN_UUID)
+    @TableId(type = IdType.ASSIGN_ID)
     private String id;
 
     private String orderNo;
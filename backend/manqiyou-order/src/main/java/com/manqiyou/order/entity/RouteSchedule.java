@@ -0,0 +1,28 @@
+package com.manqiyou.order.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 线路班期实体
+ */
+@Data
+@TableName("route_schedule")
+public class RouteSchedule {
+
+    @TableId(type = IdType.ASSIGN_UUID)
+    private String id;
+
+    private String routeId;
+
+    private LocalDate scheduleDate;
+
+    /**
+     * 剩余名额
+     */
+    private Integer availableSpots;
+}
@@ -0,0 +1,339 @@
+package com.manqiyou.order.expiry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ * 4 层、每层 512 个槽，第 0 层每槽一个 tick，第 n 层每槽 512^n 个 tick；tick 为 100ms 时可覆盖数百年。
+ * 添加和取消都是 O(1)：任务按到期 tick 与当前 tick 的距离放入对应层的槽（双向链表），
+ * 低层转完一圈时把上一层当前槽的任务下放。时间轮只由一个工作线程修改，
+ * 其他线程的添加和取消经无锁队列在下一个 tick 生效；同一 tick 到期的任务作为一批交给处理线程
+ */
+@Slf4j
+public class HierarchicalTimingWheel<T> implements AutoCloseable {
+
+    private static final int WHEEL_BITS = 9;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final String name;
+    private final long tickMillis;
+    private final long startTime;
+    private final Bucket<T>[][] wheels;
+    private final Consumer<List<T>> handler;
+
+    private final Queue<Timeout<T>> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancellations = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final ExecutorService handlerExecutor;
+    private volatile boolean running = true;
+
+    /**
+     * 当前 tick，仅工作线程读写
+     */
+    private long currentTick;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final LongAdder expired = new LongAdder();
+    private volatile long tickLagMillis;
+    private volatile long maxExpiryLagMillis;
+
+    /**
+     * @param tickMillis 精度（毫秒）
+     * @param handler    到期任务处理，在单独的线程中按批调用
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(String name, long tickMillis, Consumer<List<T>> handler) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.name = name;
+        this.tickMillis = tickMillis;
+        this.handler = handler;
+        this.startTime = System.currentTimeMillis();
+        this.wheels = new Bucket[LEVELS][WHEEL_SIZE];
+        for (Bucket<T>[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Bucket<>();
+            }
+        }
+        this.handlerExecutor = Executors.newSingleThreadExecutor(daemon(name + "-handler"));
+        this.worker = daemon(name).newThread(this::run);
+        this.worker.start();
+    }
+
+    private static ThreadFactory daemon(String threadName) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 添加定时任务，deadlineMillis 已过时在下一个 tick 到期
+     */
+    public Timeout<T> schedule(T payload, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, payload, deadlineMillis);
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 未到期的任务数
+     */
+    public long pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * 运行统计：待到期数、已到期数、tick 滞后、到期任务实际执行相对到期时间的最大滞后（自上次读取）
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("name", name);
+        stats.put("tickMillis", tickMillis);
+        stats.put("pending", pending.get());
+        stats.put("expired", expired.sum());
+        stats.put("tickLagMillis", tickLagMillis);
+        stats.put("maxExpiryLagMillis", maxExpiryLagMillis);
+        maxExpiryLagMillis = 0;
+        return stats;
+    }
+
+    private void run() {
+        while (running) {
+            long nextTickTime = startTime + (currentTick + 1) * tickMillis;
+            long sleep = nextTickTime - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                log.error("时间轮 {} tick 异常", name, e);
+            }
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+        long now = System.currentTimeMillis();
+        tickLagMillis = now - (startTime + currentTick * tickMillis);
+
+        List<Timeout<T>> due = new ArrayList<>();
+        Timeout<T> timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+            pending.decrementAndGet();
+        }
+        while ((timeout = additions.poll()) != null) {
+            place(timeout, due);
+        }
+        // 低层转完一圈时，上一层当前槽的任务下放
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                break;
+            }
+            Bucket<T> bucket = wheels[level][(int) ((currentTick >>> shift) & WHEEL_MASK)];
+            for (Timeout<T> task : bucket.drain()) {
+                place(task, due);
+            }
+        }
+        due.addAll(wheels[0][(int) (currentTick & WHEEL_MASK)].drain());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<T> payloads = new ArrayList<>(due.size());
+        long maxLag = 0;
+        for (Timeout<T> task : due) {
+            if (task.expire()) {
+                payloads.add(task.payload);
+                maxLag = Math.max(maxLag, now - task.deadline);
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+        pending.addAndGet(-payloads.size());
+        expired.add(payloads.size());
+        if (maxLag > maxExpiryLagMillis) {
+            maxExpiryLagMillis = maxLag;
+        }
+        handlerExecutor.execute(() -> {
+            try {
+                handler.accept(payloads);
+            } catch (RuntimeException e) {
+                log.error("时间轮 {} 到期处理异常，{} 个任务", name, payloads.size(), e);
+            }
+        });
+    }
+
+    /**
+     * 按到期 tick 与当前 tick 的距离放入对应层的槽，已到期的放入 due
+     */
+    private void place(Timeout<T> timeout, List<Timeout<T>> due) {
+        if (timeout.isCancelled()) {
+            return;
+        }
+        long tick = Math.floorDiv(timeout.deadline - startTime + tickMillis - 1, tickMillis);
+        long delta = tick - currentTick;
+        if (delta <= 0) {
+            due.add(timeout);
+            return;
+        }
+        if (delta > MAX_DELTA) {
+            delta = MAX_DELTA;
+            tick = currentTick + MAX_DELTA;
+        }
+        int level = 0;
+        while (delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)].add(timeout);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        handlerExecutor.shutdown();
+        try {
+            handlerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout<T> {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T payload;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        // 以下字段仅工作线程访问
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T payload, long deadline) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * 取消，已到期或已取消时返回 false
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            wheel.cancellations.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private boolean expire() {
+            return state.compareAndSet(INIT, EXPIRED);
+        }
+    }
+
+    /**
+     * 槽：双向链表，O(1) 添加和移除
+     */
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        private List<Timeout<T>> drain() {
+            List<Timeout<T>> tasks = new ArrayList<>();
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.bucket = null;
+                timeout.prev = null;
+                timeout.next = null;
+                tasks.add(timeout);
+                timeout = next;
+            }
+            head = null;
+            tail = null;
+            return tasks;
+        }
+    }
+}
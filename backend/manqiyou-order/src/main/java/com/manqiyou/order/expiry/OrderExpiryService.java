@@ -0,0 +1,129 @@
+package com.manqiyou.order.expiry;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.manqiyou.order.entity.Order;
+import com.manqiyou.order.inventory.SeatInventory;
+import com.manqiyou.order.mapper.OrderMapper;
+import com.manqiyou.order.service.OrderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 待支付订单超时取消
+ * 每个待支付订单在时间轮中挂一个超时任务（下单时间 + 支付时限），同一 tick 到期的订单按批取消
+ * （只取消仍为 pending 的订单，已支付的不受影响），并把座位归还库存。
+ * 启动时从数据库恢复所有待支付订单，重启期间已超时的订单在第一个 tick 取消
+ */
+@Slf4j
+@Component
+public class OrderExpiryService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long RETRY_DELAY_MILLIS = 5000;
+
+    private final OrderMapper orderMapper;
+    private final SeatInventory seatInventory;
+    private final long paymentTimeoutMillis;
+    private final HierarchicalTimingWheel<String> wheel;
+
+    private final LongAdder cancelled = new LongAdder();
+
+    public OrderExpiryService(OrderMapper orderMapper, SeatInventory seatInventory,
+                              @Value("${manqiyou.order.payment-timeout-minutes:30}") long paymentTimeoutMinutes,
+                              @Value("${manqiyou.order.expiry-tick-millis:100}") long tickMillis) {
+        this.orderMapper = orderMapper;
+        this.seatInventory = seatInventory;
+        this.paymentTimeoutMillis = paymentTimeoutMinutes * 60_000;
+        this.wheel = new HierarchicalTimingWheel<>("order-expiry", tickMillis, this::expire);
+    }
+
+    /**
+     * 登记新建的待支付订单
+     */
+    public void track(Order order) {
+        wheel.schedule(order.getId(), toMillis(order.getCreatedAt()) + paymentTimeoutMillis);
+    }
+
+    /**
+     * 从数据库恢复待支付订单的超时任务（按 id 分页扫描）
+     * 下单流水线在此之前已开始接单，恢复期间新建的订单会被 track 和扫描各登记一次。
+     * 重复登记无害：cancelPending 只取消仍为 pending 的订单并只返回这次取消的订单，
+     * 同一订单第二次到期时不再取消，也不会再次归还座位
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        String lastId = null;
+        long recovered = 0;
+        while (true) {
+            List<Order> page = orderMapper.selectList(new LambdaQueryWrapper<Order>()
+                    .select(Order::getId, Order::getCreatedAt)
+                    .eq(Order::getStatus, OrderService.STATUS_PENDING)
+                    .gt(lastId != null, Order::getId, lastId)
+                    .orderByAsc(Order::getId)
+                    .last("LIMIT " + BATCH_SIZE));
+            page.forEach(this::track);
+            recovered += page.size();
+            if (page.size() < BATCH_SIZE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        log.info("恢复待支付订单超时任务 {} 个", recovered);
+    }
+
+    /**
+     * 取消一批到期订单并归还座位，失败的部分稍后重试
+     */
+    void expire(List<String> orderIds) {
+        for (int from = 0; from < orderIds.size(); from += BATCH_SIZE) {
+            List<String> chunk = orderIds.subList(from, Math.min(from + BATCH_SIZE, orderIds.size()));
+            List<Order> cancelledOrders;
+            try {
+                cancelledOrders = orderMapper.cancelPending(chunk);
+            } catch (RuntimeException e) {
+                log.warn("取消超时订单失败，{}ms 后重试 {} 个: {}", RETRY_DELAY_MILLIS, chunk.size(), e.getMessage());
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                chunk.forEach(id -> wheel.schedule(id, retryAt));
+                continue;
+            }
+            Map<String, Integer> seats = new HashMap<>();
+            for (Order order : cancelledOrders) {
+                if (order.getScheduleId() != null && order.getParticipants() != null) {
+                    seats.merge(order.getScheduleId(), order.getParticipants(), Integer::sum);
+                }
+            }
+            seats.forEach(seatInventory::restore);
+            cancelled.add(cancelledOrders.size());
+        }
+    }
+
+    /**
+     * 队列深度、滞后和取消数量
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = wheel.stats();
+        stats.put("cancelled", cancelled.sum());
+        return stats;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? System.currentTimeMillis()
+                : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void close() {
+        wheel.close();
+    }
+}
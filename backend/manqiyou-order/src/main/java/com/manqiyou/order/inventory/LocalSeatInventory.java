@@ -0,0 +1,162 @@
+package com.manqiyou.order.inventory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单机座位库存（manqiyou.inventory.mode=memory，默认）
+ * 每个班期一个原子计数器，预留时 CAS 扣减，不会超卖；计数器首次使用时从数据库加载。
+ * 确认的扣减在内存中累加，定时汇总写回数据库；只适用于单实例部署，多实例使用 redis 模式
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "manqiyou.inventory.mode", havingValue = "memory", matchIfMissing = true)
+public class LocalSeatInventory implements SeatInventory {
+
+    private final ScheduleSpotsWriter writer;
+    private final long reservationTtlMillis;
+
+    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * 待写回的扣减：班期 -> 累计扣减数量
+     */
+    private final Map<String, AtomicInteger> pendingWrites = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    public LocalSeatInventory(ScheduleSpotsWriter writer,
+                              @Value("${manqiyou.inventory.reservation-ttl-seconds:900}") long reservationTtlSeconds,
+                              @Value("${manqiyou.inventory.flush-interval-millis:1000}") long flushIntervalMillis) {
+        this.writer = writer;
+        this.reservationTtlMillis = reservationTtlSeconds * 1000;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-inventory");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::releaseExpired, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Reservation reserve(String scheduleId, int seats) {
+        if (seats <= 0) {
+            throw new IllegalArgumentException("预订人数必须大于0");
+        }
+        AtomicInteger counter = counter(scheduleId);
+        int current;
+        do {
+            current = counter.get();
+            if (current < seats) {
+                return null;
+            }
+        } while (!counter.compareAndSet(current, current - seats));
+
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), scheduleId, seats,
+                System.currentTimeMillis() + reservationTtlMillis);
+        reservations.put(reservation.getId(), reservation);
+        return reservation;
+    }
+
+    @Override
+    public boolean confirm(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        if (reservation.isExpired(System.currentTimeMillis())) {
+            counter(reservation.getScheduleId()).addAndGet(reservation.getSeats());
+            return false;
+        }
+        pendingWrites.computeIfAbsent(reservation.getScheduleId(), k -> new AtomicInteger())
+                .addAndGet(reservation.getSeats());
+        return true;
+    }
+
+    @Override
+    public boolean release(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        counter(reservation.getScheduleId()).addAndGet(reservation.getSeats());
+        return true;
+    }
+
+    @Override
+    public void restore(String scheduleId, int seats) {
+        counter(scheduleId).addAndGet(seats);
+        pendingWrites.computeIfAbsent(scheduleId, k -> new AtomicInteger()).addAndGet(-seats);
+    }
+
+    @Override
+    public int available(String scheduleId) {
+        return counter(scheduleId).get();
+    }
+
+    private AtomicInteger counter(String scheduleId) {
+        return counters.computeIfAbsent(scheduleId, id -> {
+            Integer available = writer.loadAvailable(id);
+            if (available == null) {
+                throw new IllegalArgumentException("班期不存在: " + id);
+            }
+            return new AtomicInteger(available);
+        });
+    }
+
+    /**
+     * 归还过期未确认的预留
+     */
+    void releaseExpired() {
+        long now = System.currentTimeMillis();
+        reservations.values().forEach(reservation -> {
+            if (reservation.isExpired(now) && reservations.remove(reservation.getId(), reservation)) {
+                counters.get(reservation.getScheduleId()).addAndGet(reservation.getSeats());
+            }
+        });
+    }
+
+    /**
+     * 汇总写回确认的扣减，失败的部分放回队列
+     */
+    public synchronized void flush() {
+        Map<String, Integer> batch = new HashMap<>();
+        pendingWrites.forEach((scheduleId, pending) -> {
+            int decrement = pending.getAndSet(0);
+            if (decrement != 0) {
+                batch.put(scheduleId, decrement);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writer.write(batch).forEach((scheduleId, decrement) ->
+                    pendingWrites.computeIfAbsent(scheduleId, k -> new AtomicInteger()).addAndGet(decrement));
+        } catch (RuntimeException e) {
+            log.warn("写回座位库存失败，稍后重试", e);
+            batch.forEach((scheduleId, decrement) ->
+                    pendingWrites.computeIfAbsent(scheduleId, k -> new AtomicInteger()).addAndGet(decrement));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        flush();
+    }
+}
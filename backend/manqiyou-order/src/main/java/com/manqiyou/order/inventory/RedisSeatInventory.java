@@ -0,0 +1,246 @@
+package com.manqiyou.order.inventory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分布式座位库存（manqiyou.inventory.mode=redis）
+ * 可售库存、预留和待写回的扣减都在Redis中，由Lua脚本原子修改，多实例共享；
+ * 库存key不存在时从数据库初始化。Redis需配置为不淘汰这些key（noeviction 或单独实例）
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "manqiyou.inventory.mode", havingValue = "redis")
+public class RedisSeatInventory implements SeatInventory {
+
+    private static final String STOCK_PREFIX = "seat:stock:";
+    private static final String RESERVATION_PREFIX = "seat:resv:";
+    private static final String EXPIRY_KEY = "seat:resv:expiry";
+    private static final String CONFIRMED_KEY = "seat:confirmed";
+    private static final int SWEEP_BATCH = 200;
+
+    /**
+     * KEYS[1] 库存；KEYS[2] 预留；KEYS[3] 预留过期集合；ARGV[1] 座位数；ARGV[2] 班期；ARGV[3] 过期时间；ARGV[4] 预留ID。
+     * 返回 1 成功，0 库存不足，-1 库存未初始化
+     */
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "local stock = redis.call('GET', KEYS[1]) "
+                    + "if not stock then return -1 end "
+                    + "local seats = tonumber(ARGV[1]) "
+                    + "if tonumber(stock) < seats then return 0 end "
+                    + "redis.call('DECRBY', KEYS[1], seats) "
+                    + "redis.call('SET', KEYS[2], ARGV[2] .. '|' .. ARGV[1]) "
+                    + "redis.call('ZADD', KEYS[3], ARGV[3], ARGV[4]) "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 结束一个预留。KEYS[1] 预留；KEYS[2] 预留过期集合；KEYS[3] 待写回；ARGV[1] 预留ID；ARGV[2] 当前时间；
+     * ARGV[3] 库存key前缀；ARGV[4] 1 确认 / 0 取消。
+     * 确认且未过期时计入待写回并返回 1；取消或已过期时归还库存，取消返回 1、过期返回 0；预留不存在返回 0
+     */
+    private static final RedisScript<Long> FINISH_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) "
+                    + "if not v then return 0 end "
+                    + "local expireAt = redis.call('ZSCORE', KEYS[2], ARGV[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('ZREM', KEYS[2], ARGV[1]) "
+                    + "local sep = string.find(v, '|', 1, true) "
+                    + "local sid = string.sub(v, 1, sep - 1) "
+                    + "local seats = tonumber(string.sub(v, sep + 1)) "
+                    + "local expired = expireAt and tonumber(expireAt) <= tonumber(ARGV[2]) "
+                    + "if ARGV[4] == '1' and not expired then "
+                    + "  redis.call('HINCRBY', KEYS[3], sid, seats) "
+                    + "  return 1 "
+                    + "end "
+                    + "redis.call('INCRBY', ARGV[3] .. sid, seats) "
+                    + "if ARGV[4] == '1' then return 0 end "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 归还过期预留。KEYS[1] 预留过期集合；ARGV[1] 当前时间；ARGV[2] 批量；ARGV[3] 预留key前缀；ARGV[4] 库存key前缀
+     */
+    private static final RedisScript<Long> SWEEP_SCRIPT = new DefaultRedisScript<>(
+            "local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) "
+                    + "for _, id in ipairs(ids) do "
+                    + "  redis.call('ZREM', KEYS[1], id) "
+                    + "  local v = redis.call('GET', ARGV[3] .. id) "
+                    + "  if v then "
+                    + "    redis.call('DEL', ARGV[3] .. id) "
+                    + "    local sep = string.find(v, '|', 1, true) "
+                    + "    redis.call('INCRBY', ARGV[4] .. string.sub(v, 1, sep - 1), tonumber(string.sub(v, sep + 1))) "
+                    + "  end "
+                    + "end "
+                    + "return #ids",
+            Long.class);
+
+    /**
+     * KEYS[1] 库存；KEYS[2] 待写回；ARGV[1] 班期；ARGV[2] 座位数
+     */
+    private static final RedisScript<Long> RESTORE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], -tonumber(ARGV[2])) "
+                    + "if redis.call('EXISTS', KEYS[1]) == 1 then redis.call('INCRBY', KEYS[1], ARGV[2]) end "
+                    + "return 1",
+            Long.class);
+
+    /**
+     * 原子取出全部待写回的扣减
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "local all = redis.call('HGETALL', KEYS[1]) "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "return all",
+            List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduleSpotsWriter writer;
+    private final long reservationTtlMillis;
+    private final ScheduledExecutorService scheduler;
+
+    public RedisSeatInventory(StringRedisTemplate stringRedisTemplate, ScheduleSpotsWriter writer,
+                              @Value("${manqiyou.inventory.reservation-ttl-seconds:900}") long reservationTtlSeconds,
+                              @Value("${manqiyou.inventory.flush-interval-millis:1000}") long flushIntervalMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.writer = writer;
+        this.reservationTtlMillis = reservationTtlSeconds * 1000;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-inventory");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::releaseExpired, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Reservation reserve(String scheduleId, int seats) {
+        if (seats <= 0) {
+            throw new IllegalArgumentException("预订人数必须大于0");
+        }
+        String reservationId = UUID.randomUUID().toString();
+        long expiresAt = System.currentTimeMillis() + reservationTtlMillis;
+        List<String> keys = List.of(STOCK_PREFIX + scheduleId, RESERVATION_PREFIX + reservationId, EXPIRY_KEY);
+        Long result = stringRedisTemplate.execute(RESERVE_SCRIPT, keys,
+                String.valueOf(seats), scheduleId, String.valueOf(expiresAt), reservationId);
+        if (result != null && result == -1) {
+            initStock(scheduleId);
+            result = stringRedisTemplate.execute(RESERVE_SCRIPT, keys,
+                    String.valueOf(seats), scheduleId, String.valueOf(expiresAt), reservationId);
+        }
+        if (result == null || result != 1) {
+            return null;
+        }
+        return new Reservation(reservationId, scheduleId, seats, expiresAt);
+    }
+
+    @Override
+    public boolean confirm(String reservationId) {
+        return finish(reservationId, true);
+    }
+
+    @Override
+    public boolean release(String reservationId) {
+        return finish(reservationId, false);
+    }
+
+    private boolean finish(String reservationId, boolean confirm) {
+        Long result = stringRedisTemplate.execute(FINISH_SCRIPT,
+                List.of(RESERVATION_PREFIX + reservationId, EXPIRY_KEY, CONFIRMED_KEY),
+                reservationId, String.valueOf(System.currentTimeMillis()), STOCK_PREFIX, confirm ? "1" : "0");
+        return result != null && result == 1;
+    }
+
+    @Override
+    public void restore(String scheduleId, int seats) {
+        stringRedisTemplate.execute(RESTORE_SCRIPT, List.of(STOCK_PREFIX + scheduleId, CONFIRMED_KEY),
+                scheduleId, String.valueOf(seats));
+    }
+
+    @Override
+    public int available(String scheduleId) {
+        String stock = stringRedisTemplate.opsForValue().get(STOCK_PREFIX + scheduleId);
+        if (stock == null) {
+            initStock(scheduleId);
+            stock = stringRedisTemplate.opsForValue().get(STOCK_PREFIX + scheduleId);
+        }
+        return stock == null ? 0 : Integer.parseInt(stock);
+    }
+
+    /**
+     * 从数据库初始化库存，多个实例同时初始化时只有一个生效
+     */
+    private void initStock(String scheduleId) {
+        Integer available = writer.loadAvailable(scheduleId);
+        if (available == null) {
+            throw new IllegalArgumentException("班期不存在: " + scheduleId);
+        }
+        stringRedisTemplate.opsForValue().setIfAbsent(STOCK_PREFIX + scheduleId, String.valueOf(available));
+    }
+
+    /**
+     * 归还过期未确认的预留
+     */
+    void releaseExpired() {
+        try {
+            Long swept;
+            do {
+                swept = stringRedisTemplate.execute(SWEEP_SCRIPT, List.of(EXPIRY_KEY),
+                        String.valueOf(System.currentTimeMillis()), String.valueOf(SWEEP_BATCH),
+                        RESERVATION_PREFIX, STOCK_PREFIX);
+            } while (swept != null && swept == SWEEP_BATCH);
+        } catch (RuntimeException e) {
+            log.warn("归还过期座位预留失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取出全部实例确认的扣减，汇总写回数据库，失败的部分放回Redis
+     */
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        Map<String, Integer> batch = new HashMap<>();
+        try {
+            List<String> drained = stringRedisTemplate.execute(DRAIN_SCRIPT, List.of(CONFIRMED_KEY));
+            if (drained == null || drained.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i + 1 < drained.size(); i += 2) {
+                batch.put(drained.get(i), Integer.parseInt(drained.get(i + 1)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("读取待写回座位扣减失败: {}", e.getMessage());
+            return;
+        }
+        Map<String, Integer> failed;
+        try {
+            failed = writer.write(batch);
+        } catch (RuntimeException e) {
+            log.warn("写回座位库存失败，稍后重试", e);
+            failed = batch;
+        }
+        failed.forEach((scheduleId, decrement) ->
+                stringRedisTemplate.opsForHash().increment(CONFIRMED_KEY, scheduleId, decrement));
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        flush();
+    }
+}
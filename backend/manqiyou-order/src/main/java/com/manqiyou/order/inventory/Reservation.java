@@ -0,0 +1,28 @@
+package com.manqiyou.order.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 座位预留
+ * 预留期间座位已从可售库存中扣除，确认后才写回数据库；超时未确认自动归还
+ */
+@Data
+@AllArgsConstructor
+public class Reservation {
+
+    private String id;
+
+    private String scheduleId;
+
+    private int seats;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private long expiresAt;
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
@@ -0,0 +1,53 @@
+package com.manqiyou.order.inventory;
+
+import com.manqiyou.order.mapper.RouteScheduleMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 班期名额写回
+ * 一批确认扣减按班期汇总后每个班期只执行一条 UPDATE
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduleSpotsWriter {
+
+    private final RouteScheduleMapper routeScheduleMapper;
+
+    /**
+     * 当前剩余名额，班期不存在时返回 null
+     */
+    public Integer loadAvailable(String scheduleId) {
+        var schedule = routeScheduleMapper.selectById(scheduleId);
+        return schedule == null ? null : schedule.getAvailableSpots();
+    }
+
+    /**
+     * 写回一批扣减
+     *
+     * @param decrements 班期 -> 扣减数量（负数为归还）
+     * @return 写入失败的部分，由调用方放回队列下次重试
+     */
+    public Map<String, Integer> write(Map<String, Integer> decrements) {
+        Map<String, Integer> failed = new HashMap<>();
+        decrements.forEach((scheduleId, decrement) -> {
+            if (decrement == 0) {
+                return;
+            }
+            try {
+                if (routeScheduleMapper.decrementSpots(scheduleId, decrement) == 0) {
+                    log.error("写回班期名额时班期不存在: {}, 扣减 {}", scheduleId, decrement);
+                }
+            } catch (RuntimeException e) {
+                log.warn("写回班期名额失败，稍后重试: {}", scheduleId, e);
+                failed.put(scheduleId, decrement);
+            }
+        });
+        return failed;
+    }
+}
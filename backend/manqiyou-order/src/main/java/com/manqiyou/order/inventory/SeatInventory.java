@@ -0,0 +1,43 @@
+package com.manqiyou.order.inventory;
+
+/**
+ * 班期座位库存
+ * 可售库存在内存或Redis中原子扣减，不锁 route_schedule 行；
+ * 确认的扣减按班期汇总后批量写回 route_schedule.available_spots
+ */
+public interface SeatInventory {
+
+    /**
+     * 预留座位
+     *
+     * @return 预留记录；剩余座位不足时返回 null
+     * @throws IllegalArgumentException 座位数不合法或班期不存在
+     */
+    Reservation reserve(String scheduleId, int seats);
+
+    /**
+     * 确认预留（下单成功），座位扣减进入写回队列
+     *
+     * @return 预留不存在或已过期时返回 false
+     */
+    boolean confirm(String reservationId);
+
+    /**
+     * 取消未确认的预留，座位归还可售库存
+     *
+     * @return 预留不存在（已确认、已取消或已过期）时返回 false
+     */
+    boolean release(String reservationId);
+
+    /**
+     * 归还已确认的座位（订单取消），同时写回数据库
+     */
+    void restore(String scheduleId, int seats);
+
+    /**
+     * 当前可售座位数
+     *
+     * @throws IllegalArgumentException 班期不存在
+     */
+    int available(String scheduleId);
+}
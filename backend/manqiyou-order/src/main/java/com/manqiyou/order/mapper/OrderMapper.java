@@ -0,0 +1,26 @@
+package com.manqiyou.order.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.manqiyou.order.entity.Order;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 订单 Mapper
+ */
+@Mapper
+public interface OrderMapper extends BaseMapper<Order> {
+
+    /**
+     * 取消仍为待支付的订单，返回实际取消的订单（id、班期、人数），已支付或已取消的订单不受影响
+     */
+    @Select("<script>UPDATE orders SET status = 'cancelled', updated_at = CURRENT_TIMESTAMP "
+            + "WHERE status = 'pending' AND id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> "
+            + "RETURNING id, schedule_id, participants</script>")
+    List<Order> cancelPending(@Param("ids") Collection<String> ids);
+}
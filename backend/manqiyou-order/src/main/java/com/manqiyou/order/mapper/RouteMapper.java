@@ -0,0 +1,23 @@
+package com.manqiyou.order.mapper;
+
+import com.manqiyou.order.dto.RouteTitle;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 线路 Mapper（订单服务只读取线路名称）
+ */
+@Mapper
+public interface RouteMapper {
+
+    /**
+     * 批量查询线路名称
+     */
+    @Select("<script>SELECT id, title FROM route WHERE id IN "
+            + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<RouteTitle> selectTitles(@Param("ids") Collection<String> ids);
+}
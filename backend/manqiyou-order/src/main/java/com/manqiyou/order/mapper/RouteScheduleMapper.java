@@ -0,0 +1,30 @@
+package com.manqiyou.order.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.manqiyou.order.entity.RouteSchedule;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.math.BigDecimal;
+
+/**
+ * 线路班期 Mapper
+ */
+@Mapper
+public interface RouteScheduleMapper extends BaseMapper<RouteSchedule> {
+
+    /**
+     * 扣减剩余名额，decrement 为负数时归还
+     */
+    @Update("UPDATE route_schedule SET available_spots = available_spots - #{decrement} WHERE id = #{id}")
+    int decrementSpots(@Param("id") String id, @Param("decrement") int decrement);
+
+    /**
+     * 班期所属线路的单价；班期不属于该线路或线路已下架时返回 null
+     */
+    @Select("SELECT r.price FROM route_schedule s JOIN route r ON r.id = s.route_id "
+            + "WHERE s.id = #{scheduleId} AND s.route_id = #{routeId} AND r.is_active = TRUE")
+    BigDecimal selectBookablePrice(@Param("scheduleId") String scheduleId, @Param("routeId") String routeId);
+}
@@ -0,0 +1,238 @@
+package com.manqiyou.order.service;
+
+import com.manqiyou.common.core.exception.BusinessException;
+import com.manqiyou.order.entity.Order;
+import com.manqiyou.order.expiry.OrderExpiryService;
+import com.manqiyou.order.inventory.Reservation;
+import com.manqiyou.order.inventory.SeatInventory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 下单组提交流水线
+ * 校验通过的订单进入队列，写线程把短时间内到达的订单（最多等待 max-wait-millis 或凑满 max-batch-size）
+ * 合为一批：逐个预留座位，整批一次 JDBC 批量插入、一次提交，然后确认预留；
+ * 座位扣减由库存按班期汇总写回，入库的订单登记支付超时。批量失败时逐条重试，每个调用方都拿到自己的结果或异常。
+ * 只有入库失败的订单会释放预留；订单入库后确认预留或登记超时失败只记录错误，不释放座位，也不再重新入库
+ */
+@Slf4j
+@Component
+public class OrderIntakePipeline {
+
+    private final OrderService orderService;
+    private final SeatInventory seatInventory;
+    private final OrderExpiryService expiryService;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public OrderIntakePipeline(OrderService orderService, SeatInventory seatInventory, OrderExpiryService expiryService,
+                               @Value("${manqiyou.order.intake.max-batch-size:64}") int maxBatchSize,
+                               @Value("${manqiyou.order.intake.max-wait-millis:2}") long maxWaitMillis,
+                               @Value("${manqiyou.order.intake.queue-capacity:10000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.seatInventory = seatInventory;
+        this.expiryService = expiryService;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "order-intake");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 提交订单，返回的 future 在订单入库后完成；名额不足或队列已满时以 BusinessException 失败
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        PendingOrder pending = new PendingOrder(order);
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            pending.future.completeExceptionally(new BusinessException(503, "下单人数过多，请稍后重试"));
+        }
+        return pending.future;
+    }
+
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("下单批处理异常", e);
+                batch.forEach(pending -> fail(pending, e));
+            } finally {
+                batch.clear();
+            }
+        }
+        PendingOrder left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(new BusinessException(503, "服务正在停止，请稍后重试"));
+        }
+    }
+
+    private void process(List<PendingOrder> batch) {
+        List<PendingOrder> accepted = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            try {
+                pending.reservation = seatInventory.reserve(pending.order.getScheduleId(),
+                        pending.order.getParticipants());
+            } catch (RuntimeException e) {
+                pending.future.completeExceptionally(e);
+                continue;
+            }
+            if (pending.reservation == null) {
+                pending.future.completeExceptionally(BusinessException.badRequest("该班期剩余名额不足"));
+            } else {
+                accepted.add(pending);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        persist(accepted).forEach(this::complete);
+    }
+
+    /**
+     * 整批入库，失败时逐条重试；入库失败的订单释放预留并以异常结束
+     *
+     * @return 已入库的订单
+     */
+    private List<PendingOrder> persist(List<PendingOrder> accepted) {
+        try {
+            orderService.saveBatch(accepted.stream().map(pending -> pending.order).toList(), accepted.size());
+            accepted.forEach(pending -> pending.persisted = true);
+            return accepted;
+        } catch (RuntimeException e) {
+            if (accepted.size() == 1) {
+                fail(accepted.get(0), e);
+                return List.of();
+            }
+            log.warn("批量下单失败，逐条重试: {}", e.getMessage());
+        }
+        List<PendingOrder> persisted = new ArrayList<>(accepted.size());
+        for (PendingOrder pending : accepted) {
+            try {
+                orderService.save(pending.order);
+                pending.persisted = true;
+                persisted.add(pending);
+            } catch (RuntimeException single) {
+                fail(pending, single);
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * 订单已入库：确认预留、登记支付超时，调用方拿到订单
+     */
+    private void complete(PendingOrder pending) {
+        Order order = pending.order;
+        try {
+            if (!seatInventory.confirm(pending.reservation.getId())) {
+                reserveAgain(order);
+            }
+        } catch (RuntimeException e) {
+            log.error("订单 {} 已入库，确认座位预留失败，需核对班期 {} 的名额", order.getId(), order.getScheduleId(), e);
+        }
+        try {
+            expiryService.track(order);
+        } catch (RuntimeException e) {
+            log.error("订单 {} 已入库，登记支付超时失败，重启恢复时补登", order.getId(), e);
+        }
+        orders.increment();
+        pending.future.complete(order);
+    }
+
+    /**
+     * 预留已过期被归还时重新扣减已入库订单的座位
+     */
+    private void reserveAgain(Order order) {
+        Reservation again = seatInventory.reserve(order.getScheduleId(), order.getParticipants());
+        if (again == null || !seatInventory.confirm(again.getId())) {
+            log.error("订单 {} 已入库但座位预留已失效且无法重新扣减，班期 {} 可能超卖 {} 座",
+                    order.getId(), order.getScheduleId(), order.getParticipants());
+        }
+    }
+
+    /**
+     * 订单未入库时释放预留并以异常结束
+     */
+    private void fail(PendingOrder pending, RuntimeException cause) {
+        if (pending.reservation != null && !pending.persisted) {
+            seatInventory.release(pending.reservation.getId());
+        }
+        pending.future.completeExceptionally(cause);
+    }
+
+    /**
+     * 批次统计
+     */
+    public Map<String, Object> stats() {
+        long batchCount = batches.sum();
+        long orderCount = orders.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("batches", batchCount);
+        stats.put("orders", orderCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) orderCount / batchCount);
+        stats.put("queueDepth", queue.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static final class PendingOrder {
+        private final Order order;
+        private final CompletableFuture<Order> future = new CompletableFuture<>();
+        private Reservation reservation;
+        private boolean persisted;
+
+        private PendingOrder(Order order) {
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.manqiyou.order.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.manqiyou.common.core.exception.BusinessException;
+import com.manqiyou.common.core.id.SnowflakeIdGenerator;
+import com.manqiyou.common.core.result.CursorPageResult;
+import com.manqiyou.order.dto.BookingRequest;
+import com.manqiyou.order.dto.OrderSummary;
+import com.manqiyou.order.dto.RouteTitle;
+import com.manqiyou.order.entity.Order;
+import com.manqiyou.order.mapper.OrderMapper;
+import com.manqiyou.order.mapper.RouteMapper;
+import com.manqiyou.order.mapper.RouteScheduleMapper;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 订单服务
+ */
+@Service
+public class OrderService extends ServiceImpl<OrderMapper, Order> {
+
+    public static final String STATUS_PENDING = "pending";
+
+    public static final Set<String> STATUSES = Set.of(
+        STATUS_PENDING, "paid", "confirmed", "completed", "cancelled", "refunded");
+
+    private final RouteScheduleMapper routeScheduleMapper;
+    private final RouteMapper routeMapper;
+    private final SnowflakeIdGenerator idGenerator;
+
+    public OrderService(RouteScheduleMapper routeScheduleMapper, RouteMapper routeMapper,
+                        SnowflakeIdGenerator idGenerator) {
+        this.routeScheduleMapper = routeScheduleMapper;
+        this.routeMapper = routeMapper;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * 校验预订请求并生成待支付订单（未入库），订单号由订单ID得到
+     *
+     * @throws BusinessException 班期不属于该线路或线路已下架
+     */
+    public Order prepare(String userId, BookingRequest request) {
+        BigDecimal price = routeScheduleMapper.selectBookablePrice(request.getScheduleId(), request.getRouteId());
+        if (price == null) {
+            throw BusinessException.badRequest("线路班期不可预订");
+        }
+        long id = idGenerator.nextId();
+        Order order = new Order();
+        order.setId(Long.toString(id));
+        order.setOrderNo(SnowflakeIdGenerator.formatOrderNo(id));
+        order.setUserId(userId);
+        order.setRouteId(request.getRouteId());
+        order.setScheduleId(request.getScheduleId());
+        order.setParticipants(request.getParticipants());
+        order.setTotalPrice(price.multiply(BigDecimal.valueOf(request.getParticipants())));
+        order.setStatus(STATUS_PENDING);
+        order.setContactName(request.getContactName());
+        order.setContactPhone(request.getContactPhone());
+        order.setRemark(request.getRemark());
+        LocalDateTime now = LocalDateTime.now();
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        return order;
+    }
+
+    /**
+     * 用户订单列表，按下单时间倒序
+     * 按 (created_at, id) 定位到上一页末尾继续向后扫描 idx_order_user_created，不执行 COUNT 和 OFFSET；
+     * 线路名称用一次 IN 查询补全。cursor 为空时返回第一页
+     *
+     * @param status 为空时不过滤
+     */
+    public CursorPageResult<OrderSummary> getUserOrders(String userId, String status, String cursor, int size) {
+        if (status != null && !STATUSES.contains(status)) {
+            throw BusinessException.badRequest("不支持的订单状态: " + status);
+        }
+        LambdaQueryWrapper<Order> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(true, OrderSummary.COLUMNS);
+        wrapper.eq(Order::getUserId, userId);
+        wrapper.eq(status != null, Order::getStatus, status);
+        if (cursor != null && !cursor.isEmpty()) {
+            Object[] position = decodeCursor(cursor);
+            wrapper.apply("(created_at, id) < ({0}, {1})", position[0], position[1]);
+        }
+        wrapper.orderByDesc(Order::getCreatedAt).orderByDesc(Order::getId);
+        // 多取一条用于判断是否还有下一页
+        wrapper.last("LIMIT " + (size + 1));
+
+        List<OrderSummary> items = list(wrapper).stream().map(OrderSummary::from).toList();
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            OrderSummary last = items.get(size - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        fillRouteNames(items);
+        return CursorPageResult.of(items, size, nextCursor);
+    }
+
+    private void fillRouteNames(List<OrderSummary> items) {
+        Set<String> routeIds = items.stream()
+            .map(OrderSummary::getRouteId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (routeIds.isEmpty()) {
+            return;
+        }
+        Map<String, String> titles = routeMapper.selectTitles(routeIds).stream()
+            .collect(Collectors.toMap(RouteTitle::getId, RouteTitle::getTitle, (a, b) -> a));
+        items.forEach(item -> item.setRouteName(titles.get(item.getRouteId())));
+    }
+
+    /**
+     * 游标编码：created_at|id 的 Base64URL，对客户端不透明
+     */
+    private String encodeCursor(LocalDateTime createdAt, String id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new Object[]{LocalDateTime.parse(raw.substring(0, sep)), raw.substring(sep + 1)};
+        } catch (RuntimeException e) {
+            throw BusinessException.badRequest("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.manqiyou.order.expiry;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 200 万个超时任务均匀分布在 8 秒内，10 毫秒 tick，取消其中 10%：
+ * 输出调度耗时与占用堆内存；剩余任务全部到期且没有提前到期，并输出首批插入之后的最大到期滞后
+ */
+@Tag("benchmark")
+class HierarchicalTimingWheelBenchmarkTest {
+
+    private static final int TIMEOUTS = 2_000_000;
+    private static final long SPREAD_MILLIS = 8000;
+    private static final long TICK_MILLIS = 10;
+
+    @Test
+    void twoMillionTimeouts() throws Exception {
+        AtomicLong fired = new AtomicLong();
+        AtomicLong early = new AtomicLong();
+        long heapBefore = usedHeap();
+        try (HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>("benchmark", TICK_MILLIS, deadlines -> {
+            long now = System.currentTimeMillis();
+            for (long deadline : deadlines) {
+                if (now < deadline) {
+                    early.incrementAndGet();
+                }
+            }
+            fired.addAndGet(deadlines.size());
+        })) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<HierarchicalTimingWheel.Timeout<Long>> timeouts = new ArrayList<>(TIMEOUTS);
+            long base = System.currentTimeMillis() + 1000;
+            long start = System.nanoTime();
+            for (int i = 0; i < TIMEOUTS; i++) {
+                long deadline = base + random.nextLong(SPREAD_MILLIS);
+                timeouts.add(wheel.schedule(deadline, deadline));
+            }
+            double scheduleNanos = (double) (System.nanoTime() - start) / TIMEOUTS;
+            long heapMb = (usedHeap() - heapBefore) >> 20;
+
+            long cancelled = 0;
+            for (int i = 0; i < TIMEOUTS; i += 10) {
+                if (timeouts.get(i).cancel()) {
+                    cancelled++;
+                }
+            }
+            timeouts = null;
+            // 丢弃首批插入期间的滞后
+            Thread.sleep(500);
+            wheel.stats();
+
+            long expected = TIMEOUTS - cancelled;
+            long waitUntil = base + SPREAD_MILLIS + 5000;
+            while (fired.get() < expected && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(50);
+            }
+            Object maxLag = wheel.stats().get("maxExpiryLagMillis");
+
+            assertEquals(expected, fired.get());
+            assertEquals(0, early.get());
+            System.out.printf("HierarchicalTimingWheel: %.0f ns/schedule, ~%d MB heap, %d fired, %d early, "
+                + "max expiry lag %s ms (%d timeouts over %d ms, %d ms tick, %d cancelled)%n",
+                scheduleNanos, heapMb, fired.get(), early.get(), maxLag, TIMEOUTS, SPREAD_MILLIS, TICK_MILLIS,
+                cancelled);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        Thread.sleep(100);
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,142 @@
+package com.manqiyou.order.inventory;
+
+import com.manqiyou.order.entity.RouteSchedule;
+import com.manqiyou.order.mapper.RouteScheduleMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 单个热门班期上的多线程抢座：不超卖、不少卖，内存计数与数据库写回一致；吞吐测试只在 -Pbenchmark 时运行
+ * 数据库用内存中的 route_schedule.available_spots 代替，写回按 1 毫秒间隔与抢座并发进行
+ */
+class LocalSeatInventoryStressTest {
+
+    private static final String SCHEDULE = "hot";
+    private static final int THREADS = 32;
+
+    private final AtomicLong dbSpots = new AtomicLong();
+
+    /**
+     * 库存少于请求量：确认的座位恰好等于库存，计数器归零，数据库写回后归零
+     */
+    @Test
+    void sellsExactlyTheStockUnderContention() throws Exception {
+        int stock = 5_000;
+        dbSpots.set(stock);
+        LocalSeatInventory inventory = new LocalSeatInventory(new ScheduleSpotsWriter(mapper()), 900, 1);
+        AtomicLong confirmed = new AtomicLong();
+
+        // 释放座位的线程自己会继续抢，已售罄时退出不会留下未售出的座位
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int seats = 1 + random.nextInt(3);
+            while (true) {
+                Reservation reservation = inventory.reserve(SCHEDULE, seats);
+                if (reservation == null) {
+                    if (inventory.available(SCHEDULE) == 0) {
+                        return;
+                    }
+                    // 余量不足所请求的座位数
+                    seats = 1;
+                    continue;
+                }
+                if (random.nextInt(10) == 0) {
+                    inventory.release(reservation.getId());
+                } else if (inventory.confirm(reservation.getId())) {
+                    confirmed.addAndGet(reservation.getSeats());
+                }
+                seats = 1 + random.nextInt(3);
+            }
+        });
+        inventory.close();
+
+        assertEquals(stock, confirmed.get());
+        assertEquals(0, inventory.available(SCHEDULE));
+        assertEquals(0, dbSpots.get());
+    }
+
+    /**
+     * 库存充足时固定时长的确认吞吐；结束后计数器 + 已确认 = 初始库存，数据库 = 初始库存 - 已确认
+     */
+    @Test
+    @Tag("benchmark")
+    void measuresThroughputOnHotSchedule() throws Exception {
+        int stock = 50_000_000;
+        dbSpots.set(stock);
+        LocalSeatInventory inventory = new LocalSeatInventory(new ScheduleSpotsWriter(mapper()), 900, 1);
+        AtomicLong confirmed = new AtomicLong();
+        AtomicLong bookings = new AtomicLong();
+        long durationMillis = 2000;
+        long deadline = System.currentTimeMillis() + durationMillis;
+
+        long start = System.nanoTime();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long local = 0;
+            while (System.currentTimeMillis() < deadline) {
+                Reservation reservation = inventory.reserve(SCHEDULE, 1 + random.nextInt(3));
+                if (random.nextInt(10) == 0) {
+                    inventory.release(reservation.getId());
+                } else if (inventory.confirm(reservation.getId())) {
+                    confirmed.addAndGet(reservation.getSeats());
+                    local++;
+                }
+            }
+            bookings.addAndGet(local);
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        inventory.close();
+
+        assertEquals(stock, inventory.available(SCHEDULE) + confirmed.get());
+        assertEquals(stock - confirmed.get(), dbSpots.get());
+        System.out.printf("LocalSeatInventory: %.0f bookings/s on one schedule (%d threads, %d seats confirmed)%n",
+            bookings.get() / seconds, THREADS, confirmed.get());
+    }
+
+    private static void runConcurrently(Runnable worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 只支持 selectById / decrementSpots 的班期 Mapper
+     */
+    private RouteScheduleMapper mapper() {
+        return (RouteScheduleMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{RouteScheduleMapper.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "selectById" -> {
+                    RouteSchedule schedule = new RouteSchedule();
+                    schedule.setId((String) args[0]);
+                    schedule.setAvailableSpots((int) dbSpots.get());
+                    yield schedule;
+                }
+                case "decrementSpots" -> {
+                    dbSpots.addAndGet(-(int) args[1]);
+                    yield 1;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,209 @@
+package com.manqiyou.order.service;
+
+import com.manqiyou.order.entity.Order;
+import com.manqiyou.order.entity.RouteSchedule;
+import com.manqiyou.order.expiry.OrderExpiryService;
+import com.manqiyou.order.inventory.LocalSeatInventory;
+import com.manqiyou.order.inventory.ScheduleSpotsWriter;
+import com.manqiyou.order.mapper.RouteScheduleMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 组提交的吞吐与延迟：256 个闭环客户端在同一班期上连续下单，max-batch-size 分别为 1、16、64
+ * 订单写入 H2 文件库（PostgreSQL 模式，init.sql 的 orders 表），每次提交额外等待 1 毫秒模拟 fsync
+ */
+@Tag("benchmark")
+class OrderIntakePipelineBenchmarkTest {
+
+    private static final String SCHEDULE = "hot";
+    private static final int CLIENTS = 256;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long MEASURE_MILLIS = 3000;
+    private static final long COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void groupCommitThroughputAndLatency() throws Exception {
+        for (int batchSize : new int[]{1, 16, 64}) {
+            run(batchSize);
+        }
+    }
+
+    private void run(int batchSize) throws Exception {
+        String url = "jdbc:h2:file:" + dataDir.resolve("orders-" + batchSize) + ";MODE=PostgreSQL";
+        try (Connection connection = DriverManager.getConnection(url)) {
+            createTable(connection);
+            LocalSeatInventory inventory = new LocalSeatInventory(new ScheduleSpotsWriter(scheduleMapper()), 900, 100);
+            OrderExpiryService expiryService = new OrderExpiryService(null, inventory, 30, 100);
+            OrderIntakePipeline pipeline = new OrderIntakePipeline(new H2OrderService(connection), inventory,
+                expiryService, batchSize, 2, 10_000);
+            try {
+                drive(pipeline, WARMUP_MILLIS);
+                long[] latencies = drive(pipeline, MEASURE_MILLIS);
+                Arrays.sort(latencies);
+                System.out.printf("batch %2d: %.0f orders/s, p50 %.1f ms, p99 %.1f ms (%d clients)%n", batchSize,
+                    latencies.length * 1000.0 / MEASURE_MILLIS, percentile(latencies, 0.50),
+                    percentile(latencies, 0.99), CLIENTS);
+            } finally {
+                pipeline.close();
+                expiryService.close();
+                inventory.close();
+            }
+        }
+    }
+
+    /**
+     * 所有客户端连续下单直到截止时间，返回每单从提交到完成的耗时（纳秒）
+     */
+    private long[] drive(OrderIntakePipeline pipeline, long durationMillis) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        pipeline.submit(order()).get(30, TimeUnit.SECONDS);
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - now;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            long[] all = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get(60, TimeUnit.SECONDS);
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Order order() {
+        long id = ids.incrementAndGet();
+        Order order = new Order();
+        order.setId(Long.toString(id));
+        order.setOrderNo("NO" + id);
+        order.setUserId("user-" + id % 5000);
+        order.setRouteId("route-1");
+        order.setScheduleId(SCHEDULE);
+        order.setParticipants(1);
+        order.setTotalPrice(BigDecimal.valueOf(2999));
+        order.setStatus(OrderService.STATUS_PENDING);
+        order.setContactName("联系人");
+        order.setContactPhone("13800000000");
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    private static void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders ("
+                + "id VARCHAR(36) PRIMARY KEY, order_no VARCHAR(50) UNIQUE NOT NULL, user_id VARCHAR(36), "
+                + "route_id VARCHAR(36), schedule_id VARCHAR(36), participants INTEGER NOT NULL, "
+                + "total_price DECIMAL(10,2) NOT NULL, status VARCHAR(20) DEFAULT 'pending', "
+                + "contact_name VARCHAR(50), contact_phone VARCHAR(20), "
+                + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    private static RouteScheduleMapper scheduleMapper() {
+        return (RouteScheduleMapper) Proxy.newProxyInstance(OrderIntakePipelineBenchmarkTest.class.getClassLoader(),
+            new Class<?>[]{RouteScheduleMapper.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "selectById" -> {
+                    RouteSchedule schedule = new RouteSchedule();
+                    schedule.setId((String) args[0]);
+                    schedule.setAvailableSpots(Integer.MAX_VALUE / 2);
+                    yield schedule;
+                }
+                case "decrementSpots" -> 1;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * 用 JDBC 批量插入代替 MyBatis-Plus 的 saveBatch：整批一次执行、一次提交
+     */
+    private static class H2OrderService extends OrderService {
+        private final Connection connection;
+
+        H2OrderService(Connection connection) {
+            super(null, null, null);
+            this.connection = connection;
+        }
+
+        @Override
+        public boolean saveBatch(Collection<Order> entityList, int batchSize) {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO orders (id, order_no, user_id, "
+                + "route_id, schedule_id, participants, total_price, status, contact_name, contact_phone, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (Order order : entityList) {
+                    insert.setString(1, order.getId());
+                    insert.setString(2, order.getOrderNo());
+                    insert.setString(3, order.getUserId());
+                    insert.setString(4, order.getRouteId());
+                    insert.setString(5, order.getScheduleId());
+                    insert.setInt(6, order.getParticipants());
+                    insert.setBigDecimal(7, order.getTotalPrice());
+                    insert.setString(8, order.getStatus());
+                    insert.setString(9, order.getContactName());
+                    insert.setString(10, order.getContactPhone());
+                    insert.setTimestamp(11, Timestamp.valueOf(order.getCreatedAt()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                LockSupport.parkNanos(COMMIT_NANOS);
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean save(Order entity) {
+            return saveBatch(List.of(entity), 1);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.manqiyou.order.service;
+
+import com.manqiyou.order.entity.Order;
+import com.manqiyou.order.entity.RouteSchedule;
+import com.manqiyou.order.expiry.OrderExpiryService;
+import com.manqiyou.order.inventory.LocalSeatInventory;
+import com.manqiyou.order.inventory.Reservation;
+import com.manqiyou.order.inventory.ScheduleSpotsWriter;
+import com.manqiyou.order.inventory.SeatInventory;
+import com.manqiyou.order.mapper.RouteScheduleMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 入库前后的失败处理：入库后的确认、登记失败不释放座位、不重新入库；入库失败的订单释放预留
+ */
+class OrderIntakePipelineTest {
+
+    private static final String SCHEDULE = "schedule-1";
+    private static final int STOCK = 100;
+
+    private final LocalSeatInventory localInventory =
+        new LocalSeatInventory(new ScheduleSpotsWriter(scheduleMapper()), 900, 60_000);
+    private final FlakyInventory inventory = new FlakyInventory(localInventory);
+    private final RecordingOrderService orderService = new RecordingOrderService();
+    private final FlakyExpiryService expiryService = new FlakyExpiryService(inventory);
+    private OrderIntakePipeline pipeline;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        pipeline.close();
+        expiryService.close();
+        localInventory.close();
+    }
+
+    @Test
+    void failuresAfterCommitKeepSeatsAndDoNotResave() throws Exception {
+        inventory.failConfirm = true;
+        expiryService.failTrack = true;
+        pipeline = new OrderIntakePipeline(orderService, inventory, expiryService, 64, 2, 100);
+
+        Order order = order("o-1", 3);
+        assertSame(order, pipeline.submit(order).get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, orderService.batchCalls.get());
+        assertEquals(0, orderService.singleCalls.get());
+        assertEquals(STOCK - 3, localInventory.available(SCHEDULE));
+    }
+
+    @Test
+    void onlyOrdersThatFailToPersistReleaseSeats() throws Exception {
+        orderService.failBatch = true;
+        orderService.rejectedIds.add("o-bad");
+        pipeline = new OrderIntakePipeline(orderService, inventory, expiryService, 64, 50, 100);
+
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+        futures.add(pipeline.submit(order("o-1", 2)));
+        futures.add(pipeline.submit(order("o-bad", 4)));
+        futures.add(pipeline.submit(order("o-2", 1)));
+
+        assertEquals("o-1", futures.get(0).get(5, TimeUnit.SECONDS).getId());
+        assertThrows(ExecutionException.class, () -> futures.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals("o-2", futures.get(2).get(5, TimeUnit.SECONDS).getId());
+        assertEquals(STOCK - 3, localInventory.available(SCHEDULE));
+        assertEquals(3, orderService.singleCalls.get());
+    }
+
+    private static Order order(String id, int participants) {
+        Order order = new Order();
+        order.setId(id);
+        order.setScheduleId(SCHEDULE);
+        order.setParticipants(participants);
+        order.setCreatedAt(LocalDateTime.now());
+        return order;
+    }
+
+    private static RouteScheduleMapper scheduleMapper() {
+        return (RouteScheduleMapper) Proxy.newProxyInstance(OrderIntakePipelineTest.class.getClassLoader(),
+            new Class<?>[]{RouteScheduleMapper.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "selectById" -> {
+                    RouteSchedule schedule = new RouteSchedule();
+                    schedule.setId((String) args[0]);
+                    schedule.setAvailableSpots(STOCK);
+                    yield schedule;
+                }
+                case "decrementSpots" -> 1;
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * 记录入库调用；可让整批失败、指定订单逐条入库时失败
+     */
+    private static class RecordingOrderService extends OrderService {
+        final AtomicInteger batchCalls = new AtomicInteger();
+        final AtomicInteger singleCalls = new AtomicInteger();
+        final Set<String> rejectedIds = ConcurrentHashMap.newKeySet();
+        volatile boolean failBatch;
+
+        RecordingOrderService() {
+            super(null, null, null);
+        }
+
+        @Override
+        public boolean saveBatch(Collection<Order> entityList, int batchSize) {
+            batchCalls.incrementAndGet();
+            if (failBatch) {
+                throw new IllegalStateException("batch failed");
+            }
+            return true;
+        }
+
+        @Override
+        public boolean save(Order entity) {
+            singleCalls.incrementAndGet();
+            if (rejectedIds.contains(entity.getId())) {
+                throw new IllegalStateException("duplicate key");
+            }
+            return true;
+        }
+    }
+
+    private static class FlakyInventory implements SeatInventory {
+        private final SeatInventory delegate;
+        volatile boolean failConfirm;
+
+        FlakyInventory(SeatInventory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Reservation reserve(String scheduleId, int seats) {
+            return delegate.reserve(scheduleId, seats);
+        }
+
+        @Override
+        public boolean confirm(String reservationId) {
+            if (failConfirm) {
+                throw new IllegalStateException("inventory unavailable");
+            }
+            return delegate.confirm(reservationId);
+        }
+
+        @Override
+        public boolean release(String reservationId) {
+            return delegate.release(reservationId);
+        }
+
+        @Override
+        public void restore(String scheduleId, int seats) {
+            delegate.restore(scheduleId, seats);
+        }
+
+        @Override
+        public int available(String scheduleId) {
+            return delegate.available(scheduleId);
+        }
+    }
+
+    private static class FlakyExpiryService extends OrderExpiryService {
+        volatile boolean failTrack;
+
+        FlakyExpiryService(SeatInventory inventory) {
+            super(null, inventory, 30, 100);
+        }
+
+        @Override
+        public void track(Order order) {
+            if (failTrack) {
+                throw new IllegalStateException("timing wheel full");
+            }
+            super.track(order);
+        }
+    }
+}
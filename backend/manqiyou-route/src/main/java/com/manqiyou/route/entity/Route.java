@@ -2,6 +2,7 @@ package com.manqiyou.route.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
 import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.manqiyou.common.core.mybatis.ImageListTypeHandler;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -15,7 +16,7 @@ import java.util.List;
 @TableName(value = "route", autoResultMap = true)
 public class Route {
 
-    @TableId(type = IdType.ASSIGN_UUID)
+    @TableId(type = IdType.ASSIGN_ID)
     private String id;
 
     private String title;
@@ -28,7 +29,7 @@ public class Route {
 
     private String descriptionEn;
 
-    @TableField(typeHandler = JacksonTypeHandler.class)
+    @TableField(typeHandler = ImageListTypeHandler.class)
     private List<String> images;
 
     private BigDecimal price;
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @TableName("sys_user")
 public class User {
 
-    @TableId(type = IdType.ASSIGN_UUID)
+    @TableId(type = IdType.ASSIGN_ID)
     private String id;
 
     private String phone;
@@ -0,0 +1,12 @@
+package com.manqiyou.user.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.manqiyou.user.entity.MemberLevel;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 会员等级 Mapper
+ */
+@Mapper
+public interface MemberLevelMapper extends BaseMapper<MemberLevel> {
+}
@@ -0,0 +1,72 @@
+package com.manqiyou.user.service;
+
+import com.manqiyou.common.core.snapshot.ReferenceDataSnapshot;
+import com.manqiyou.user.entity.MemberLevel;
+import com.manqiyou.user.mapper.MemberLevelMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会员等级服务
+ * 等级表很少变更，常驻内存快照，积分变动时计算等级不访问数据库
+ */
+@Service
+public class MemberLevelService {
+
+    private final ReferenceDataSnapshot<String, MemberLevel> levels;
+
+    public MemberLevelService(MemberLevelMapper memberLevelMapper,
+                              @Value("${manqiyou.reference-data.refresh-seconds:300}") long refreshSeconds) {
+        this.levels = new ReferenceDataSnapshot<>("member-level",
+            () -> memberLevelMapper.selectList(null),
+            MemberLevel::getId,
+            Comparator.comparing(MemberLevel::getMinPoints));
+        this.levels.refreshEvery(refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 全部等级，按所需积分升序
+     */
+    public List<MemberLevel> getAllLevels() {
+        return levels.all();
+    }
+
+    public MemberLevel getLevel(String id) {
+        return levels.get(id);
+    }
+
+    /**
+     * 积分对应的等级：所需积分不超过 points 的最高等级，没有满足的等级时返回 null
+     */
+    public MemberLevel levelFor(int points) {
+        List<MemberLevel> all = levels.all();
+        int low = 0;
+        int high = all.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (all.get(mid).getMinPoints() <= points) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == 0 ? null : all.get(low - 1);
+    }
+
+    /**
+     * 等级数据变更后调用
+     */
+    public void reload() {
+        levels.reload();
+    }
+
+    @PreDestroy
+    public void close() {
+        levels.close();
+    }
+}
@@ -166,7 +166,10 @@ CREATE INDEX IF NOT EXISTS idx_route_category ON route(category_id);
 CREATE INDEX IF NOT EXISTS idx_route_active ON route(is_active);
 CREATE INDEX IF NOT EXISTS idx_schedule_route ON route_schedule(route_id);
 CREATE INDEX IF NOT EXISTS idx_schedule_date ON route_schedule(schedule_date);
-CREATE INDEX IF NOT EXISTS idx_order_user ON orders(user_id);
+-- 我的订单：按用户、下单时间倒序的游标分页，INCLUDE 列表字段以便仅扫描索引（替代 idx_order_user）
+DROP INDEX IF EXISTS idx_order_user;
+CREATE INDEX IF NOT EXISTS idx_order_user_created ON orders(user_id, created_at DESC, id DESC)
+    INCLUDE (status, order_no, route_id, schedule_id, participants, total_price);
 CREATE INDEX IF NOT EXISTS idx_order_status ON orders(status);
 CREATE INDEX IF NOT EXISTS idx_order_no ON orders(order_no);
 CREATE INDEX IF NOT EXISTS idx_points_user ON points_record(user_id);
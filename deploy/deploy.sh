@@ -61,13 +61,11 @@ echo "前端构建完成"
 
 echo ""
 echo -e "${GREEN}步骤 3/6: 构建后端...${NC}"
-cd "$BACKEND_DIR"
-
-# 给 mvnw 添加执行权限
-chmod +x mvnw
+# 单体应用依赖公共核心模块，在 backend 目录下连同依赖模块一起构建
+cd "$PROJECT_ROOT/backend"
 
 echo "构建 Spring Boot 应用..."
-./mvnw clean package -DskipTests
+mvn clean package -pl manqiyou-app -am -DskipTests
 
 echo "后端构建完成"
 
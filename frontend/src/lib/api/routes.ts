@@ -10,7 +10,7 @@ export interface Route {
   summary?: string
   description?: string
   coverImage?: string
-  images?: string
+  images?: string[]
   categoryId?: number
   difficulty: 'easy' | 'medium' | 'hard'
   duration?: number
@@ -48,6 +48,14 @@ export async function getRoutes(params?: {
   size?: number
   categoryId?: number
   difficulty?: string
+  sort?: 'price' | 'distance' | 'duration' | 'featured'
+  order?: 'asc' | 'desc'
+  priceMin?: number
+  priceMax?: number
+  distanceMin?: number
+  distanceMax?: number
+  durationMin?: number
+  durationMax?: number
 }): Promise<PageResponse<Route>> {
   const response = await api.get<PageResponse<Route>>('/api/routes', params)
   return response.data